@@ -0,0 +1,3 @@
+@echo off
+javac -d bin -sourcepath src;bench .\bench\com\nw\maze\bench\*.java
+java -Xmx8g -cp bin com.nw.maze.bench.MazeBenchmark %*
@@ -0,0 +1,187 @@
+package com.nw.maze.bench;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+import com.nw.maze.MazeData;
+import com.nw.maze.MazeGenerator;
+import com.nw.maze.engine.AStarSolver;
+import com.nw.maze.engine.BatchSolver;
+import com.nw.maze.engine.GeneticSolver;
+import com.nw.maze.engine.Solver;
+import com.nw.maze.engine.Solvers;
+
+/**
+ * Headless benchmark over the bundled maze files and generated square mazes. Every benchmark runs
+ * warmup iterations first, then measured iterations of a fixed duration, and reports throughput,
+ * average time and allocation per operation (from the thread allocation counter, like JMH's gc
+ * profiler). Run from the repository root so the bundled m*.txt files are found:
+ *
+ *   java -Xmx8g -cp bin com.nw.maze.bench.MazeBenchmark [--sizes=1000,4000,10000] [--algos=Dijkstra,A*]
+ *        [--warmup=3] [--iterations=5] [--time=1000] [--ga-generations=10] [--dir=.]
+ *        [--queries=0] [--query-algos=A* (ALT),Dijkstra]
+ *
+ * With --queries=N every maze also answers N random (start, goal) pairs through {@link BatchSolver}
+ * per query algorithm, reporting throughput and latency percentiles.
+ */
+public class MazeBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Results are folded into this field so the JIT cannot drop the measured work
+    static volatile long sink;
+
+    private int warmup = 3;
+    private int iterations = 5;
+    private long iterationMillis = 1000;
+    private int gaGenerations = 10;
+    private int queries = 0;
+    private List<String> queryAlgos = Arrays.asList("A* (ALT)", "Dijkstra");
+
+    public static void main(String[] args) {
+        MazeBenchmark bench = new MazeBenchmark();
+        String dir = ".";
+        int[] sizes = { 1000, 4000, 10000 };
+        List<String> algos = new ArrayList<>();
+        for (String name : Solvers.names()) {
+            // LPA* keeps its tree between solves, so repeating one solve would only time an empty repair
+            if (!"Genetic".equals(name) && !"LPA*".equals(name)) algos.add(name);
+        }
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            String value = kv.length > 1 ? kv[1] : "";
+            switch (kv[0]) {
+                case "--sizes":
+                    sizes = value.isEmpty() ? new int[0] : Arrays.stream(value.split(",")).mapToInt(Integer::parseInt).toArray();
+                    break;
+                case "--algos":
+                    algos = Arrays.asList(value.split(","));
+                    break;
+                case "--warmup":
+                    bench.warmup = Integer.parseInt(value);
+                    break;
+                case "--iterations":
+                    bench.iterations = Integer.parseInt(value);
+                    break;
+                case "--time":
+                    bench.iterationMillis = Long.parseLong(value);
+                    break;
+                case "--ga-generations":
+                    bench.gaGenerations = Integer.parseInt(value);
+                    break;
+                case "--queries":
+                    bench.queries = Integer.parseInt(value);
+                    break;
+                case "--query-algos":
+                    bench.queryAlgos = Arrays.asList(value.split(","));
+                    break;
+                case "--dir":
+                    dir = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        System.out.printf("%-44s %14s %14s %14s %12s%n", "Benchmark", "ops/s", "ns/op", "B/op", "MB/s");
+        File[] files = new File(dir).listFiles((d, n) -> n.endsWith(".txt") && (n.startsWith("m") || n.startsWith("maze_")));
+        if (files != null) {
+            Arrays.sort(files);
+            for (File f : files) {
+                String path = f.getPath();
+                bench.run("parse " + f.getName(), () -> new MazeData(path).N());
+                MazeData data = new MazeData(path);
+                bench.runSolvers(f.getName(), data, algos);
+                bench.runGenetic(f.getName(), data);
+                bench.runQueries(f.getName(), data);
+            }
+        }
+        for (int size : sizes) {
+            MazeData data = MazeGenerator.generate(size, size, 42);
+            bench.runSolvers("generated " + size + "x" + size, data, algos);
+            bench.runQueries("generated " + size + "x" + size, data);
+        }
+    }
+
+    // Random (start, goal) pairs of open cells, the same pairs for every algorithm
+    private void runQueries(String label, MazeData data) {
+        if (queries <= 0) return;
+        List<int[]> open = new ArrayList<>();
+        for (int i = 0; i < data.N(); i++) {
+            for (int j = 0; j < data.M(); j++) {
+                if (data.getMazeChar(i, j) == MazeData.ROAD) open.add(new int[]{ i, j });
+            }
+        }
+        if (open.isEmpty()) return;
+        java.util.Random rnd = new java.util.Random(42);
+        List<BatchSolver.Query> batch = new ArrayList<>(queries);
+        for (int q = 0; q < queries; q++) {
+            int[] s = open.get(rnd.nextInt(open.size()));
+            int[] g = open.get(rnd.nextInt(open.size()));
+            batch.add(new BatchSolver.Query(s[0], s[1], g[0], g[1]));
+        }
+        for (String algo : queryAlgos) {
+            BatchSolver solver = new BatchSolver(() -> Solvers.byName(algo), 0);
+            solver.solve(data, batch.subList(0, Math.min(batch.size(), 100)), null); // warm up
+            BatchSolver.Stats stats = solver.solve(data, batch, a -> sink += a.result.getPathLength());
+            System.out.printf("%-44s %s%n", "batch " + algo + " " + label, stats);
+        }
+    }
+
+    private void runSolvers(String label, MazeData data, List<String> algos) {
+        data.grid();  // build the flat grid outside the measurement
+        AStarSolver.precompute(data);  // and A*'s exact heuristic, which repeated solves towards one exit share
+        for (String algo : algos) {
+            if ("LPA*".equals(algo)) {
+                // A fresh planner per solve, so each one plans from scratch
+                run(algo + " " + label, () -> Solvers.byName(algo).solve(data).getPathLength());
+                continue;
+            }
+            Solver solver = Solvers.byName(algo);
+            run(algo + " " + label, () -> solver.solve(data).getPathLength());
+        }
+    }
+
+    private void runGenetic(String label, MazeData data) {
+        GeneticSolver.Config cfg = new GeneticSolver.Config();
+        cfg.maxGenerations = gaGenerations;
+        Solver ga = new GeneticSolver(cfg);
+        run("Genetic x" + gaGenerations + "gen " + label, () -> ga.solve(data).getCost());
+    }
+
+    private void run(String name, IntSupplier op) {
+        for (int i = 0; i < warmup; i++) measure(op);
+        long ops = 0, nanos = 0, bytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            long[] m = measure(op);
+            ops += m[0];
+            nanos += m[1];
+            bytes += m[2];
+        }
+        double seconds = nanos / 1e9;
+        System.out.printf("%-44s %14.2f %14.0f %14.0f %12.1f%n", name,
+            ops / seconds, (double) nanos / ops, (double) bytes / ops, bytes / 1e6 / seconds);
+    }
+
+    // One iteration: repeat op until the iteration time is used up; returns ops, nanos, allocated bytes
+    private long[] measure(IntSupplier op) {
+        long tid = Thread.currentThread().getId();
+        long a0 = THREADS.getThreadAllocatedBytes(tid);
+        long t0 = System.nanoTime();
+        long deadline = t0 + iterationMillis * 1_000_000L;
+        long ops = 0, acc = 0, t1;
+        do {
+            acc += op.getAsInt();
+            ops++;
+            t1 = System.nanoTime();
+        } while (t1 < deadline);
+        long a1 = THREADS.getThreadAllocatedBytes(tid);
+        sink += acc;
+        return new long[]{ ops, t1 - t0, a1 - a0 };
+    }
+}
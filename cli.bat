@@ -0,0 +1,3 @@
+@echo off
+javac -d bin -sourcepath src .\src\com\nw\maze\cli\*.java
+java -Djava.awt.headless=true -cp bin com.nw.maze.cli.MazeCli %*
@@ -0,0 +1,165 @@
+package com.nw.maze;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compact binary maze format (.mzb) for very large grids. A 32-byte big-endian header
+ * (magic "MZB1", version, bytes per cell, rows, cols, entrance x/y, exit x/y) is followed by the
+ * cells in exactly the padded row-major layout of {@link MazeGrid}: (rows + 2) x (cols + 2) entry
+ * costs of 1, 2 or 4 bytes each, 0 for walls and the border. Loading maps the payload with
+ * {@link MappedByteBuffer} and bulk-copies it into the solver grid at the file's cell width, so there is
+ * no parsing at all and a 1-byte maze takes one byte per cell in memory too. Road weights <= 0 are
+ * stored as their entry cost 1.
+ *
+ * Convert text mazes with: java -cp bin com.nw.maze.MazeBinary in.txt [out.mzb]
+ */
+public final class MazeBinary {
+
+	public static final int MAGIC = 0x4D5A4231; // "MZB1"
+	public static final String EXTENSION = ".mzb";
+	private static final short VERSION = 1;
+	private static final int HEADER_BYTES = 32;
+	// Map the payload in windows well below the 2 GiB limit of a single mapping
+	private static final long MAP_CHUNK = 1L << 30;
+
+	// Header fields and the padded cell array of a loaded file, one of bytes, chars or ints by cell width
+	static final class Content {
+		int rows, cols;
+		int entranceX, entranceY, exitX, exitY;
+		byte[] bytes;
+		char[] chars;
+		int[] ints;
+
+		int cost(int index) {
+			if (ints != null) return ints[index];
+			return bytes != null ? bytes[index] & 0xFF : chars[index];
+		}
+	}
+
+	private MazeBinary() {}
+
+	public static boolean isBinary(String fileName) {
+		try (FileChannel ch = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			return isBinary(ch);
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	// Whether the channel starts with the magic; leaves it positioned after what was read
+	static boolean isBinary(FileChannel ch) throws IOException {
+		ByteBuffer b = ByteBuffer.allocate(4);
+		while (b.hasRemaining() && ch.read(b) > 0) { }
+		return !b.hasRemaining() && b.getInt(0) == MAGIC;
+	}
+
+	// Content of an open .mzb file, read by absolute position from its start
+	static Content read(FileChannel ch, String fileName) throws IOException {
+		ByteBuffer h = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+		if (h.getInt() != MAGIC) throw new IllegalArgumentException("Not a binary maze file: " + fileName);
+		short version = h.getShort();
+		if (version != VERSION) throw new IllegalArgumentException("Unsupported binary maze version " + version);
+		int width = h.getShort();
+		if (width != 1 && width != 2 && width != 4) throw new IllegalArgumentException("Bad cell width " + width);
+		Content c = new Content();
+		c.rows = h.getInt();
+		c.cols = h.getInt();
+		c.entranceX = h.getInt();
+		c.entranceY = h.getInt();
+		c.exitX = h.getInt();
+		c.exitY = h.getInt();
+		long count = (c.rows + 2L) * (c.cols + 2L);
+		if (c.rows < 0 || c.cols < 0 || count > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Bad maze dimensions " + c.rows + "x" + c.cols);
+		}
+		if (!inside(c, c.entranceX, c.entranceY) || !inside(c, c.exitX, c.exitY)) {
+			throw new IllegalArgumentException("Entrance or exit outside the " + c.rows + "x" + c.cols + " maze: " + fileName);
+		}
+		if (ch.size() < HEADER_BYTES + count * width) {
+			throw new IllegalArgumentException("Truncated binary maze file: " + fileName);
+		}
+		long cellsPerChunk = MAP_CHUNK / width;
+		if (width == 1) c.bytes = new byte[(int) count];
+		else if (width == 2) c.chars = new char[(int) count];
+		else c.ints = new int[(int) count];
+		for (long done = 0; done < count; ) {
+			int n = (int) Math.min(cellsPerChunk, count - done);
+			MappedByteBuffer m = ch.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + done * width, (long) n * width);
+			int off = (int) done;
+			if (width == 4) {
+				m.asIntBuffer().get(c.ints, off, n);
+				for (int i = 0; i < n; i++) {
+					if (c.ints[off + i] < 0) throw new IllegalArgumentException("Negative cell cost in " + fileName);
+				}
+			} else if (width == 2) {
+				m.asCharBuffer().get(c.chars, off, n);
+			} else {
+				m.get(c.bytes, off, n);
+			}
+			done += n;
+		}
+		// The solvers step to neighbours without bounds checks, relying on the wall border
+		int stride = c.cols + 2;
+		for (int j = 0; j < stride; j++) {
+			if (c.cost(j) != MazeGrid.WALL || c.cost((c.rows + 1) * stride + j) != MazeGrid.WALL) throw badBorder(fileName);
+		}
+		for (int i = 1; i <= c.rows; i++) {
+			if (c.cost(i * stride) != MazeGrid.WALL || c.cost(i * stride + stride - 1) != MazeGrid.WALL) throw badBorder(fileName);
+		}
+		return c;
+	}
+
+	private static boolean inside(Content c, int x, int y) {
+		return x >= 0 && x < c.rows && y >= 0 && y < c.cols;
+	}
+
+	private static IllegalArgumentException badBorder(String fileName) {
+		return new IllegalArgumentException("Border cells must be walls (0) in " + fileName);
+	}
+
+	public static void write(MazeData data, Path out) throws IOException {
+		MazeGrid grid = data.grid();
+		int width = grid.maxCost() <= 0xFF ? 1 : grid.maxCost() <= 0xFFFF ? 2 : 4;
+		try (FileChannel ch = FileChannel.open(out, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer b = ByteBuffer.allocateDirect(1 << 20);
+			b.putInt(MAGIC).putShort(VERSION).putShort((short) width);
+			b.putInt(data.N()).putInt(data.M());
+			b.putInt(data.getEntranceX()).putInt(data.getEntranceY());
+			b.putInt(data.getExitX()).putInt(data.getExitY());
+			for (int i = 0; i < grid.size(); i++) {
+				int c = grid.cost(i);
+				if (b.remaining() < 4) {
+					b.flip();
+					while (b.hasRemaining()) ch.write(b);
+					b.clear();
+				}
+				if (width == 1) b.put((byte) c);
+				else if (width == 2) b.putShort((short) c);
+				else b.putInt(c);
+			}
+			b.flip();
+			while (b.hasRemaining()) ch.write(b);
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1 || args.length > 2) {
+			System.err.println("Usage: MazeBinary <maze.txt> [out" + EXTENSION + "]");
+			System.exit(2);
+		}
+		String in = args[0];
+		String out = args.length > 1 ? args[1] : in.replaceFirst("\\.[^.\\\\/]*$", "") + EXTENSION;
+		long t0 = System.nanoTime();
+		MazeData data = new MazeData(in);
+		write(data, Paths.get(out));
+		System.out.println("Wrote " + out + " (" + data.N() + "x" + data.M() + ") in "
+			+ (System.nanoTime() - t0) / 1_000_000L + "ms");
+	}
+}
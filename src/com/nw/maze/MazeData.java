@@ -1,165 +1,237 @@
 package com.nw.maze;
 
-import java.io.BufferedInputStream;
-import java.io.File;
-import java.io.FileInputStream;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Random;
-import java.util.Scanner;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.nw.maze.metrics.Metrics;
+import com.nw.maze.metrics.ParseEvent;
 
 public class MazeData {
 	
 	private int N, M;
 	private int entranceX, entranceY;
 	private int exitX, exitY;
-	private char[][] maze;
-	public boolean[][] path;
-	public boolean[][] visited;
-	public boolean[][] result;
-	public int[][] weight;
+	// 2D views; null after a binary load until something asks for them, see derive()
+	private volatile char[][] maze;
+	private int[][] weight;
+	// Display marks, allocated on first use; path is written last, so reading it non-null publishes result
+	private volatile boolean[][] path;
+	private boolean[][] result;
 	public static final char WALL ='#';
 	public static final char ROAD = ' ';
+	private static final LongAdder PARSES = Metrics.counter(Metrics.PARSES);
+	private static final LongAdder PARSE_NANOS = Metrics.counter(Metrics.PARSE_NANOS);
+	private volatile MazeGrid grid;
+	// File the maze was loaded from, null for generated mazes
+	private String fileName;
 	
 	public MazeData(String fileName) {
-		Scanner scanner = null;
+		this.fileName = fileName;
+		ParseEvent event = new ParseEvent();
+		event.begin();
+		long t0 = System.nanoTime();
+		boolean binary;
+		// One open per load: the magic decides the format, then the same channel is read from the start
+		try (FileChannel ch = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			binary = MazeBinary.isBinary(ch);
+			if (binary) {
+				loadBinary(ch, fileName);
+			} else {
+				ch.position(0);
+				loadText(ch, fileName);
+			}
+		} catch (IOException e) {
+			throw new RuntimeException("Failed to load maze file: " + fileName, e);
+		}
+		PARSES.increment();
+		PARSE_NANOS.add(System.nanoTime() - t0);
+		event.end();
+		if (event.shouldCommit()) {
+			event.file = fileName;
+			event.binary = binary;
+			event.rows = N;
+			event.cols = M;
+			event.commit();
+		}
+	}
+
+	private void loadText(FileChannel ch, String fileName) {
+		MazeFileParser parsed;
 		try {
-			File file = new File(fileName);
-			FileInputStream fis = new FileInputStream(file);
-			scanner = new Scanner(new BufferedInputStream(fis), "UTF-8");
+			parsed = MazeFileParser.parse(ch);
+		} catch (Exception e) {
+			throw new RuntimeException("Failed to load maze file: " + fileName, e);
+		}
+		N = parsed.rows;
+		M = parsed.cols;
+		maze = parsed.maze;
 
-			ArrayList<String> lines = new ArrayList<>();
-			while (scanner.hasNextLine()) {
-				lines.add(scanner.nextLine());
-			}
-			if (lines.isEmpty()) {
-				throw new IllegalArgumentException("Maze file is empty: " + fileName);
-			}
+		if (parsed.headerFormat) {
+			// Old format: first line has N M, followed by N lines of raw characters
+			weight = new int[N][M];
 
-			String first = lines.get(0).trim();
-			if (first.matches("^\\d+\\s+\\d+$")) {
-				// Old format: first line has N M, followed by N lines of raw characters
-				String[] nm = first.split("\\s+");
-				N = Integer.parseInt(nm[0]);
-				M = Integer.parseInt(nm[1]);
-				maze = new char[N][M];
-				path = new boolean[N][M];
-				visited = new boolean[N][M];
-				result = new boolean[N][M];
-				weight = new int[N][M];
-
-				this.exitX = N - 2;
-				this.exitY = M - 1;
-
-				for (int i = 0; i < N; i++) {
-					String line = lines.get(i + 1);
-					for (int j = 0; j < M; j++) {
-						maze[i][j] = line.charAt(j);
-					}
-				}
+			this.exitX = N - 2;
+			this.exitY = M - 1;
 
-				// Detect entrance (left edge) and exit (right edge) if present
-				for (int i = 0; i < N; i++) {
-					if (maze[i][0] == ROAD) { entranceX = i; entranceY = 0; break; }
-				}
-				for (int i = 0; i < N; i++) {
-					if (maze[i][M - 1] == ROAD) { exitX = i; exitY = M - 1; break; }
-				}
+			// Detect entrance (left edge) and exit (right edge) if present
+			for (int i = 0; i < N; i++) {
+				if (maze[i][0] == ROAD) { entranceX = i; entranceY = 0; break; }
+			}
+			for (int i = 0; i < N; i++) {
+				if (maze[i][M - 1] == ROAD) { exitX = i; exitY = M - 1; break; }
+			}
 
-				// Initialize default weights: walls=-1, roads in [1,9]
-				Random rand = new Random(42);
-				for (int i = 0; i < N; i++) {
-					for (int j = 0; j < M; j++) {
-						if (maze[i][j] == ROAD) {
-							weight[i][j] = 1 + rand.nextInt(9);
-						} else {
-							weight[i][j] = -1;
-						}
+			// Initialize default weights: walls=-1, roads in [1,9]
+			Random rand = new Random(42);
+			for (int i = 0; i < N; i++) {
+				for (int j = 0; j < M; j++) {
+					if (maze[i][j] == ROAD) {
+						weight[i][j] = 1 + rand.nextInt(9);
+					} else {
+						weight[i][j] = -1;
 					}
 				}
-			} else {
-				// New weighted format: no header, tokens per cell (#, S, G, or "number")
-				N = lines.size();
-				M = countCells(lines.get(0));
-				maze = new char[N][M];
-				path = new boolean[N][M];
-				visited = new boolean[N][M];
-				result = new boolean[N][M];
-				weight = new int[N][M];
-
-				// Defaults in case S/G not present
-				entranceX = 1; entranceY = 1;
-				exitX = N - 2; exitY = M - 2;
-
-				for (int i = 0; i < N; i++) {
-					parseWeightedLineInto(i, lines.get(i));
-				}
 			}
+		} else {
+			// New weighted format: no header, tokens per cell (#, S, G, or "number")
+			weight = parsed.weight;
+			// Defaults in case S/G not present
+			entranceX = parsed.hasEntrance ? parsed.entranceX : 1;
+			entranceY = parsed.hasEntrance ? parsed.entranceY : 1;
+			exitX = parsed.hasExit ? parsed.exitX : N - 2;
+			exitY = parsed.hasExit ? parsed.exitY : M - 2;
+		}
+	}
+
+	// Binary .mzb file: the mapped payload already is the solver grid. The 2D views are only derived from
+	// it when the frame asks for them, so a headless load holds nothing but the grid's cells, at the
+	// file's cell width
+	private void loadBinary(FileChannel ch, String fileName) {
+		MazeBinary.Content c;
+		try {
+			c = MazeBinary.read(ch, fileName);
 		} catch (Exception e) {
 			throw new RuntimeException("Failed to load maze file: " + fileName, e);
-		} finally {
-			if (scanner != null) {
-				scanner.close();
-			}
 		}
+		N = c.rows;
+		M = c.cols;
+		entranceX = c.entranceX;
+		entranceY = c.entranceY;
+		exitX = c.exitX;
+		exitY = c.exitY;
+		grid = new MazeGrid(N, M, c.bytes, c.chars, c.ints, entranceX, entranceY, exitX, exitY);
 	}
 
-	// Count number of cells in a weighted-format line
-	private int countCells(String line) {
-		int i = 0; int count = 0; int len = line.length();
-		while (i < len) {
-			char c = line.charAt(i);
-			if (c == '#') { count++; i++; }
-			else if (c == 'S' || c == 'G') { count++; i++; }
-			else if (c == '"') {
-				// consume until next quote
-				i++; while (i < len && line.charAt(i) != '"') i++; if (i < len && line.charAt(i) == '"') i++;
-				count++;
-			} else {
-				// skip any separators/spaces just in case
-				i++;
+	// Build the char and weight views from the solver grid, for mazes loaded from a binary file
+	private synchronized void derive() {
+		if (maze != null) return;
+		MazeGrid g = grid;
+		int[][] w = new int[N][M];
+		char[][] m = new char[N][M];
+		for (int i = 0; i < N; i++) {
+			for (int j = 0; j < M; j++) {
+				int cost = g.cost(g.index(i, j));
+				m[i][j] = cost == MazeGrid.WALL ? WALL : ROAD;
+				w[i][j] = cost == MazeGrid.WALL ? -1 : cost;
 			}
 		}
-		return count;
-	}
-
-	// Parse one weighted-format line into row 'row'
-	private void parseWeightedLineInto(int row, String line) {
-		int i = 0; int col = 0; int len = line.length();
-		while (i < len && col < M) {
-			char c = line.charAt(i);
-			if (c == '#') {
-				maze[row][col] = WALL;
-				weight[row][col] = -1;
-				i++; col++;
-			} else if (c == 'S') {
-				maze[row][col] = ROAD;
-				weight[row][col] = 1;
-				entranceX = row; entranceY = col;
-				i++; col++;
-			} else if (c == 'G') {
-				maze[row][col] = ROAD;
-				weight[row][col] = 1;
-				exitX = row; exitY = col;
-				i++; col++;
-			} else if (c == '"') {
-				int start = ++i;
-				while (i < len && line.charAt(i) != '"') i++;
-				String num = line.substring(start, Math.min(i, len));
-				try {
-					int w = Integer.parseInt(num);
-					maze[row][col] = ROAD;
-					weight[row][col] = w;
-				} catch (NumberFormatException ex) {
-					maze[row][col] = ROAD;
-					weight[row][col] = 1;
-				}
-				if (i < len && line.charAt(i) == '"') i++;
-				col++;
-			} else {
-				// skip unexpected char
-				i++;
-			}
+		weight = w;
+		maze = m;
+	}
+
+	private synchronized void createMarks() {
+		if (path != null) return;
+		result = new boolean[N][M];
+		path = new boolean[N][M];
+	}
+
+	// Travelled cells shown by the frame
+	public boolean[][] path() {
+		boolean[][] p = path;
+		if (p == null) {
+			createMarks();
+			p = path;
+		}
+		return p;
+	}
+
+	// Cells of the final route shown by the frame
+	public boolean[][] result() {
+		if (path == null) createMarks();
+		return result;
+	}
+
+	// Entry cost per cell, -1 for walls
+	public int[][] weights() {
+		if (maze == null) derive();
+		return weight;
+	}
+
+	// In-memory maze, e.g. from MazeGenerator; walls carry weight -1 like the file formats
+	MazeData(char[][] maze, int[][] weight, int entranceX, int entranceY, int exitX, int exitY) {
+		this.N = maze.length;
+		this.M = N > 0 ? maze[0].length : 0;
+		this.maze = maze;
+		this.weight = weight;
+		this.entranceX = entranceX;
+		this.entranceY = entranceY;
+		this.exitX = exitX;
+		this.exitY = exitY;
+	}
+
+	// Query view of the same maze: shares the solver grid and whatever views the base has built, only the
+	// endpoints differ
+	private MazeData(MazeData base, int entranceX, int entranceY, int exitX, int exitY) {
+		this.N = base.N;
+		this.M = base.M;
+		this.maze = base.maze;
+		this.weight = base.weight;
+		this.result = base.result;
+		this.path = base.path;
+		this.fileName = base.fileName;
+		this.entranceX = entranceX;
+		this.entranceY = entranceY;
+		this.exitX = exitX;
+		this.exitY = exitY;
+		this.grid = base.grid().withEndpoints(entranceX, entranceY, exitX, exitY);
+	}
+
+	/**
+	 * The same maze with another entrance and exit, for answering many queries against one load. The
+	 * view is cheap: it shares the cells with this maze, so caches keyed on them carry over.
+	 */
+	public MazeData withEndpoints(int entranceX, int entranceY, int exitX, int exitY) {
+		return new MazeData(this, entranceX, entranceY, exitX, exitY);
+	}
+
+	// Compact flat view used by the solvers; built on first use
+	public MazeGrid grid() {
+		MazeGrid g = grid;
+		if (g == null) {
+			g = new MazeGrid(this);
+			grid = g;
+		}
+		return g;
+	}
+	
+	// Change the entry cost of a cell; a weight below 1 turns it into a wall and a positive one opens a
+	// wall. The solver grid is patched in place, which marks anything cached on it as stale; a cost too
+	// wide for a narrow binary grid rebuilds the grid on next use instead
+	public void setWeight(int x, int y, int w) {
+		if (maze == null) derive();
+		if (w < 1) {
+			maze[x][y] = WALL;
+			weight[x][y] = -1;
+		} else {
+			maze[x][y] = ROAD;
+			weight[x][y] = w;
 		}
+		MazeGrid g = grid;
+		if (g != null && !g.setCost(g.index(x, y), w < 1 ? MazeGrid.WALL : w)) grid = null;
 	}
 	
 	public boolean inArea(int x, int y) {
@@ -167,7 +239,11 @@ public class MazeData {
 	}
 	
 	public char getMazeChar(int i, int j) {
-		return maze[i][j];
+		char[][] m = maze;
+		if (m != null) return m[i][j];
+		// Binary load without 2D views: the grid is authoritative until the first edit derives them
+		MazeGrid g = grid;
+		return g.isOpen(g.index(i, j)) ? ROAD : WALL;
 	}
 
 	public int getExitX() {
@@ -186,6 +262,10 @@ public class MazeData {
 		return entranceY;
 	}
 
+	public String getFileName() {
+		return fileName;
+	}
+
 	public int N() {
 		return N;
 	}
@@ -0,0 +1,268 @@
+package com.nw.maze;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Single-pass byte-level reader for the two text maze formats accepted by {@link MazeData}:
+ * the old {@code N M} header followed by N raw rows, and the weighted format with one token per
+ * cell ({@code #}, {@code S}, {@code G} or a quoted number). Bytes are pulled through a
+ * {@link FileChannel} and written straight into the row arrays; no per-line or per-cell Strings are
+ * created. Line breaks follow {@link java.util.Scanner#nextLine()}: {@code \n}, {@code \r\n} or {@code \r}.
+ */
+final class MazeFileParser {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final FileChannel channel;
+	private final byte[] buf = new byte[BUFFER_SIZE];
+	private final ByteBuffer bb = ByteBuffer.wrap(buf);
+	private int pos, limit;
+	private boolean eof;
+	private boolean skipLF;
+
+	// Results
+	boolean headerFormat;
+	int rows, cols;
+	char[][] maze;
+	int[][] weight;
+	boolean hasEntrance, hasExit;
+	int entranceX, entranceY, exitX, exitY;
+
+	// Weighted-format line state
+	private char[] rowMaze;
+	private int[] rowWeight;
+	private int col;
+	private boolean lineStarted;
+	private boolean inQuote;
+	private long number;
+	private int digits;
+	private boolean negative, invalid, signed;
+
+	private MazeFileParser(FileChannel channel) {
+		this.channel = channel;
+	}
+
+	static MazeFileParser parse(String fileName) throws IOException {
+		try (FileChannel ch = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			return parse(ch);
+		}
+	}
+
+	// Parse from the channel's current position; the caller closes it
+	static MazeFileParser parse(FileChannel ch) throws IOException {
+		MazeFileParser p = new MazeFileParser(ch);
+		p.parse();
+		return p;
+	}
+
+	private void parse() throws IOException {
+		// The first line decides the format, so keep its bytes until it has been classified
+		byte[] first = new byte[256];
+		int n = 0;
+		int b;
+		while ((b = read()) != -1 && b != '\n') {
+			if (n == first.length) first = java.util.Arrays.copyOf(first, n * 2);
+			first[n++] = (byte) b;
+		}
+		if (b == -1 && n == 0) {
+			throw new IllegalArgumentException("Maze file is empty");
+		}
+		if (parseHeader(first, n)) {
+			headerFormat = true;
+			readRawRows();
+			return;
+		}
+		maze = new char[16][];
+		weight = new int[16][];
+		rowMaze = new char[64];
+		rowWeight = new int[64];
+		for (int i = 0; i < n; i++) feedWeighted(first[i] & 0xFF);
+		feedWeighted('\n');
+		while ((b = read()) != -1) feedWeighted(b);
+		if (lineStarted || inQuote) feedWeighted('\n');
+		maze = java.util.Arrays.copyOf(maze, rows);
+		weight = java.util.Arrays.copyOf(weight, rows);
+	}
+
+	// Old format header: two unsigned integers separated (and optionally surrounded) by whitespace
+	private boolean parseHeader(byte[] line, int len) {
+		int i = 0;
+		long[] values = new long[2];
+		// Leading and trailing bytes up to ' ' are trimmed like String.trim()
+		while (i < len && (line[i] & 0xFF) <= ' ') i++;
+		for (int v = 0; v < 2; v++) {
+			if (v == 1) {
+				while (i < len && isSpace(line[i])) i++;
+			}
+			int startDigits = i;
+			long value = 0;
+			while (i < len && line[i] >= '0' && line[i] <= '9') {
+				value = value * 10 + (line[i] - '0');
+				if (value > Integer.MAX_VALUE) return false;
+				i++;
+			}
+			if (i == startDigits) return false;
+			if (v == 0 && (i == len || !isSpace(line[i]))) return false;
+			values[v] = value;
+		}
+		while (i < len && (line[i] & 0xFF) <= ' ') i++;
+		if (i != len) return false;
+		rows = (int) values[0];
+		cols = (int) values[1];
+		return true;
+	}
+
+	private static boolean isSpace(byte b) {
+		return b == ' ' || b == '\t' || b == '\f' || b == 0x0B;
+	}
+
+	// Old format body: N rows of at least M raw characters; extra characters and rows are ignored
+	private void readRawRows() throws IOException {
+		maze = new char[rows][cols];
+		for (int i = 0; i < rows; i++) {
+			char[] row = maze[i];
+			int j = 0;
+			int b = read();
+			if (b == -1) {
+				throw new IllegalArgumentException("Expected " + rows + " rows but found " + i);
+			}
+			while (b != -1 && b != '\n') {
+				if (j < cols) row[j++] = (char) b;
+				b = read();
+			}
+			if (j < cols) {
+				throw new IllegalArgumentException("Row " + i + " has " + j + " cells, expected " + cols);
+			}
+		}
+	}
+
+	// Weighted-format state machine; '\n' ends the current line
+	private void feedWeighted(int b) {
+		if (inQuote) {
+			if (b == '"' || b == '\n') {
+				inQuote = false;
+				cell(MazeData.ROAD, invalid || digits == 0 ? 1 : (int) (negative ? -number : number));
+				if (b == '\n') endLine();
+				return;
+			}
+			if (b >= '0' && b <= '9') {
+				number = number * 10 + (b - '0');
+				digits++;
+				if (number > (negative ? 2147483648L : Integer.MAX_VALUE)) invalid = true;
+			} else if ((b == '-' || b == '+') && digits == 0 && !signed) {
+				signed = true;
+				negative = b == '-';
+			} else {
+				invalid = true;
+			}
+			return;
+		}
+		switch (b) {
+			case '\n':
+				endLine();
+				return;
+			case '#':
+				cell(MazeData.WALL, -1);
+				return;
+			case 'S':
+				if (acceptsCell()) { entranceX = rows; entranceY = col; hasEntrance = true; }
+				cell(MazeData.ROAD, 1);
+				return;
+			case 'G':
+				if (acceptsCell()) { exitX = rows; exitY = col; hasExit = true; }
+				cell(MazeData.ROAD, 1);
+				return;
+			case '"':
+				lineStarted = true;
+				inQuote = true;
+				number = 0;
+				digits = 0;
+				negative = invalid = signed = false;
+				return;
+			default:
+				// skip separators or unexpected characters
+				lineStarted = true;
+		}
+	}
+
+	// The first line defines the width; later lines ignore cells past it
+	private boolean acceptsCell() {
+		return rows == 0 || col < cols;
+	}
+
+	private void cell(char c, int w) {
+		lineStarted = true;
+		if (rows == 0) {
+			if (col == rowMaze.length) {
+				rowMaze = java.util.Arrays.copyOf(rowMaze, col * 2);
+				rowWeight = java.util.Arrays.copyOf(rowWeight, col * 2);
+			}
+		} else if (col >= cols) {
+			return;
+		} else if (rowMaze == null) {
+			rowMaze = new char[cols];
+			rowWeight = new int[cols];
+		}
+		rowMaze[col] = c;
+		rowWeight[col] = w;
+		col++;
+	}
+
+	private void endLine() {
+		if (rows == 0) {
+			cols = col;
+			rowMaze = java.util.Arrays.copyOf(rowMaze, cols);
+			rowWeight = java.util.Arrays.copyOf(rowWeight, cols);
+		} else if (rowMaze == null) {
+			rowMaze = new char[cols];
+			rowWeight = new int[cols];
+		}
+		if (rows == maze.length) {
+			maze = java.util.Arrays.copyOf(maze, rows * 2);
+			weight = java.util.Arrays.copyOf(weight, rows * 2);
+		}
+		maze[rows] = rowMaze;
+		weight[rows] = rowWeight;
+		rows++;
+		rowMaze = null;
+		rowWeight = null;
+		col = 0;
+		lineStarted = false;
+	}
+
+	// Next byte with \r\n and \r folded into \n; -1 at end of file
+	private int read() throws IOException {
+		int b = nextByte();
+		if (skipLF) {
+			skipLF = false;
+			if (b == '\n') b = nextByte();
+		}
+		if (b == '\r') {
+			skipLF = true;
+			return '\n';
+		}
+		return b;
+	}
+
+	private int nextByte() throws IOException {
+		if (pos == limit) {
+			if (eof) return -1;
+			bb.clear();
+			int n;
+			do {
+				n = channel.read(bb);
+			} while (n == 0);
+			if (n < 0) {
+				eof = true;
+				return -1;
+			}
+			pos = 0;
+			limit = n;
+		}
+		return buf[pos++] & 0xFF;
+	}
+}
@@ -4,9 +4,16 @@ import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
 import java.io.File;
+import java.util.BitSet;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
 import javax.swing.JFileChooser;
@@ -16,11 +23,16 @@ import javax.swing.JPanel;
 import javax.swing.JSlider;
 import javax.swing.WindowConstants;
 
+import com.nw.maze.engine.ExplorationTrace;
+import com.nw.maze.engine.Solvers;
+import com.nw.maze.metrics.Metrics;
+
 public class MazeFrame  extends JFrame{
 	
 	private int canvasWidth;
 	private int canvasHeight;
 	
+	// Maze as of the last applied render updates
 	private MazeData data;
 
 	// Controls
@@ -36,6 +48,8 @@ public class MazeFrame  extends JFrame{
 	private javax.swing.JSpinner gaMutationSpinner;
 	private javax.swing.JSpinner gaGoalBiasSpinner;
 	private javax.swing.JSpinner gaElitismSpinner;
+	private javax.swing.JSpinner gaIslandsSpinner;
+	private javax.swing.JSpinner gaMigrationSpinner;
 	// Metrics labels
 	private JLabel costLabel;
 	private JLabel stepsLabel;
@@ -43,6 +57,35 @@ public class MazeFrame  extends JFrame{
 	private JLabel timeLabel;
 	// Maze file label
 	private JLabel mazeFileLabel;
+	// Static maze (walls, weights, S/G) and the composed frame, both canvas-sized for the current viewport
+	private BufferedImage mazeLayer;
+	private BufferedImage backBuffer;
+	private MazeData layerData;
+	private MazeTiles tiles;
+	// Viewport: pixels per cell and the maze column/row at the canvas's top-left corner
+	private double scale = 1;
+	private double viewX, viewY;
+	private double layerScale, layerViewX, layerViewY;
+	// The maze is refitted to the canvas until the user zooms or pans
+	private boolean fitted = true;
+	private static final double MAX_SCALE = 64;
+	private static final double ZOOM_STEP = 1.25;
+	// Weight labels are skipped below this cell size; the text would not be readable anyway
+	private static final int LABEL_MIN_PX = 12;
+	// Mark changes reach the EDT through the scheduler, once per frame. Painting state below and the
+	// shown marks in tiles are only touched on the EDT
+	private final RenderScheduler scheduler = new RenderScheduler();
+	private javax.swing.Timer renderTimer;
+	// Cells changed since the last paint, as x * M + y; a full redraw recomposes every cell instead
+	private final BitSet dirtyCells = new BitSet();
+	private boolean fullRedraw = true;
+	// Replay of the last run's exploration trace
+	private TracePlayer player;
+	private JSlider replaySlider;
+	private JButton playButton;
+	private JButton exportTraceButton;
+	// Set while the player moves the slider, so that is not taken for a seek
+	private boolean updatingReplaySlider;
 	// removed Route Weight label per request
 	
 	public MazeFrame(String title, int canvasWidth, int canvasHeight) {
@@ -50,6 +93,8 @@ public class MazeFrame  extends JFrame{
 		this.canvasWidth = canvasWidth;
 		this.canvasHeight = canvasHeight;
 
+		this.player = new TracePlayer(this);
+
 		// Build UI
 		MazeCanvas canvas = new MazeCanvas();
 		JPanel root = new JPanel(new BorderLayout());
@@ -60,15 +105,57 @@ public class MazeFrame  extends JFrame{
 		// keep a reference for resizing
 		this.canvasRef = canvas;
 		
+		renderTimer = new javax.swing.Timer(RenderScheduler.FRAME_MS, new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				applyRenderUpdates();
+			}
+		});
+		renderTimer.start();
+
 		this.pack();
 		this.setResizable(true);
         this.setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
         this.setVisible(true);
 	}
 	
+	// Everything may have changed, e.g. marks were cleared or a new maze was loaded. Like renderCell
+	// this may be called from any thread, but only by one at a time, and never blocks on Swing
 	public void render(MazeData data) {
-		this.data = data;
-		repaint();
+		scheduler.full(data);
+	}
+
+	// Only the marks of one cell changed; redrawn with the next frame
+	public void renderCell(int x, int y) {
+		scheduler.cell(x, y);
+	}
+
+	// Show cells passed to renderCell with the next frame even if no more changes follow
+	public void flushRender() {
+		scheduler.flush();
+	}
+
+	// Once per frame on the EDT: apply what the writer published and repaint once for all of it
+	private void applyRenderUpdates() {
+		RenderScheduler.Batch b = scheduler.take();
+		if (b == null) return;
+		for (; b != null; b = b.next) {
+			if (b.data != data) {
+				data = b.data;
+				tiles = new MazeTiles(data);
+			}
+			if (b.all != null) {
+				tiles.setAll(b.all);
+				fullRedraw = true;
+				dirtyCells.clear();
+			}
+			for (int k = 0; k < b.size; k++) {
+				int cell = b.cells[k] >>> 2;
+				tiles.set(cell, b.cells[k] & 3);
+				if (!fullRedraw) dirtyCells.set(cell);
+			}
+		}
+		canvasRef.repaint();
 	}
 
 	public void setControlListener(ControlListener listener) {
@@ -83,9 +170,7 @@ public class MazeFrame  extends JFrame{
 	private JPanel buildControlPanel() {
 		JPanel panel = new JPanel();
 		panel.add(new JLabel("Algorithm:"));
-		this.algorithmBox = new JComboBox<>(new String[]{
-			"Genetic", "Dijkstra", "A*", "BFS" 
-		});
+		this.algorithmBox = new JComboBox<>(Solvers.names());
 		panel.add(algorithmBox);
 
 		importButton = new JButton("Import Maze...");
@@ -93,6 +178,11 @@ public class MazeFrame  extends JFrame{
 			@Override
 			public void actionPerformed(ActionEvent e) {
 				JFileChooser chooser = new JFileChooser(new File("."));
+				// Text mazes and binary .mzb mazes; MazeData detects the format from the content
+				javax.swing.filechooser.FileNameExtensionFilter mazeFilter =
+					new javax.swing.filechooser.FileNameExtensionFilter("Maze files (*.txt, *" + MazeBinary.EXTENSION + ")", "txt", MazeBinary.EXTENSION.substring(1));
+				chooser.addChoosableFileFilter(mazeFilter);
+				chooser.setFileFilter(mazeFilter);
 				int res = chooser.showOpenDialog(MazeFrame.this);
 				if (res == JFileChooser.APPROVE_OPTION && controlListener != null) {
 					File f = chooser.getSelectedFile();
@@ -132,6 +222,41 @@ public class MazeFrame  extends JFrame{
 		speedSlider.setPaintTicks(true);
 		panel.add(speedSlider);
 
+		panel.add(new JLabel("Replay:"));
+		replaySlider = new JSlider(0, 0, 0);
+		replaySlider.addChangeListener(new javax.swing.event.ChangeListener() {
+			@Override
+			public void stateChanged(javax.swing.event.ChangeEvent e) {
+				if (!updatingReplaySlider) player.seek(replaySlider.getValue());
+			}
+		});
+		panel.add(replaySlider);
+		playButton = new JButton("Play");
+		playButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				if (player.isPlaying()) player.pause(); else player.play();
+			}
+		});
+		panel.add(playButton);
+		exportTraceButton = new JButton("Export Trace...");
+		exportTraceButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				exportTrace();
+			}
+		});
+		panel.add(exportTraceButton);
+		JButton importTraceButton = new JButton("Import Trace...");
+		importTraceButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				importTrace();
+			}
+		});
+		panel.add(importTraceButton);
+		onReplayPosition(0, 0, false);
+
 
 		// Metrics display
 		costLabel = new JLabel("Cost: -");
@@ -157,15 +282,97 @@ public class MazeFrame  extends JFrame{
 		panel.add(new JLabel("GA Elitism Count:"));
 		gaElitismSpinner = new javax.swing.JSpinner(new javax.swing.SpinnerNumberModel(14, 1, 10000, 1));
 		panel.add(gaElitismSpinner);
+
+		panel.add(new JLabel("GA Islands:"));
+		gaIslandsSpinner = new javax.swing.JSpinner(new javax.swing.SpinnerNumberModel(1, 1, 64, 1));
+		panel.add(gaIslandsSpinner);
+
+		panel.add(new JLabel("GA Migrate every:"));
+		gaMigrationSpinner = new javax.swing.JSpinner(new javax.swing.SpinnerNumberModel(25, 1, 10000, 1));
+		panel.add(gaMigrationSpinner);
 		visitedLabel = new JLabel("Visited: -");
 		timeLabel = new JLabel("Time: -ms");
 		panel.add(costLabel);
 		panel.add(stepsLabel);
 		panel.add(visitedLabel);
 		panel.add(timeLabel);
+		JButton metricsButton = new JButton("Metrics...");
+		metricsButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				showMetrics();
+			}
+		});
+		panel.add(metricsButton);
 		return panel;
 	}
 
+	// Process-wide solver and parse counters, as also exposed over JMX
+	private void showMetrics() {
+		javax.swing.JTextArea text = new javax.swing.JTextArea(Metrics.format(Metrics.snapshot()));
+		text.setEditable(false);
+		text.setFont(new java.awt.Font(java.awt.Font.MONOSPACED, java.awt.Font.PLAIN, 12));
+		javax.swing.JOptionPane.showMessageDialog(this, new javax.swing.JScrollPane(text), "Metrics", javax.swing.JOptionPane.PLAIN_MESSAGE);
+	}
+
+	// Replay a recorded run on the maze from the start; called on the EDT
+	public void replay(MazeData data, ExplorationTrace trace) {
+		player.load(data, trace);
+		player.play();
+	}
+
+	// Stop any replay so the marks can be changed elsewhere; called on the EDT
+	public void stopReplay() {
+		player.unload();
+	}
+
+	// Player state changed: keep the slider and buttons in step
+	void onReplayPosition(int position, int events, boolean playing) {
+		updatingReplaySlider = true;
+		try {
+			replaySlider.setMaximum(events);
+			replaySlider.setValue(position);
+		} finally {
+			updatingReplaySlider = false;
+		}
+		replaySlider.setEnabled(events > 0);
+		playButton.setEnabled(events > 0);
+		playButton.setText(playing ? "Pause" : "Play");
+		exportTraceButton.setEnabled(events > 0);
+	}
+
+	private void exportTrace() {
+		ExplorationTrace trace = player.trace();
+		if (trace == null) return;
+		JFileChooser chooser = new JFileChooser(new File("."));
+		chooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("Exploration traces (*" + ExplorationTrace.EXTENSION + ")", ExplorationTrace.EXTENSION.substring(1)));
+		if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION || chooser.getSelectedFile() == null) return;
+		String path = chooser.getSelectedFile().getAbsolutePath();
+		if (!path.endsWith(ExplorationTrace.EXTENSION)) path += ExplorationTrace.EXTENSION;
+		try {
+			trace.write(java.nio.file.Paths.get(path));
+		} catch (java.io.IOException | RuntimeException ex) {
+			javax.swing.JOptionPane.showMessageDialog(this, ex.getMessage(), "Export Error", javax.swing.JOptionPane.ERROR_MESSAGE);
+		}
+	}
+
+	private void importTrace() {
+		if (data == null) return;
+		JFileChooser chooser = new JFileChooser(new File("."));
+		chooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("Exploration traces (*" + ExplorationTrace.EXTENSION + ")", ExplorationTrace.EXTENSION.substring(1)));
+		if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION || chooser.getSelectedFile() == null) return;
+		try {
+			ExplorationTrace trace = ExplorationTrace.read(chooser.getSelectedFile().toPath());
+			if (trace.rows() != data.N() || trace.cols() != data.M()) {
+				throw new IllegalArgumentException("Trace is for a " + trace.rows() + "x" + trace.cols()
+					+ " maze, the loaded maze is " + data.N() + "x" + data.M());
+			}
+			replay(data, trace);
+		} catch (java.io.IOException | RuntimeException ex) {
+			javax.swing.JOptionPane.showMessageDialog(this, ex.getMessage(), "Import Error", javax.swing.JOptionPane.ERROR_MESSAGE);
+		}
+	}
+
 	public void setMazeFileName(String filePath) {
 		String name = filePath;
 		try {
@@ -207,6 +414,16 @@ public class MazeFrame  extends JFrame{
 		return (v instanceof Number) ? ((Number)v).intValue() : 14;
 	}
 
+	public int getGaIslands() {
+		Object v = gaIslandsSpinner != null ? gaIslandsSpinner.getValue() : 1;
+		return (v instanceof Number) ? ((Number)v).intValue() : 1;
+	}
+
+	public int getGaMigrationInterval() {
+		Object v = gaMigrationSpinner != null ? gaMigrationSpinner.getValue() : 25;
+		return (v instanceof Number) ? ((Number)v).intValue() : 25;
+	}
+
 	// Reset GA parameter controls to their default values
 	public void resetGaParametersToDefaults() {
 		if (gaPopSpinner != null) gaPopSpinner.setValue(140);
@@ -214,51 +431,297 @@ public class MazeFrame  extends JFrame{
 		if (gaMutationSpinner != null) gaMutationSpinner.setValue(5.0);
 		if (gaGoalBiasSpinner != null) gaGoalBiasSpinner.setValue(80.0);
 		if (gaElitismSpinner != null) gaElitismSpinner.setValue(14);
+		if (gaIslandsSpinner != null) gaIslandsSpinner.setValue(1);
+		if (gaMigrationSpinner != null) gaMigrationSpinner.setValue(25);
 	}
 	
-	public void paint(MazeUtil util) {
-		int cw = (canvasRef != null ? canvasRef.getWidth() : canvasWidth);
-		int ch = (canvasRef != null ? canvasRef.getHeight() : canvasHeight);
-		int w = cw / Math.max(1, data.M());
-		int h = ch / Math.max(1, data.N());
-		for(int i = 0; i < data.N(); i++) {
-			for(int j = 0; j < data.M(); j++) {
-				if(data.getMazeChar(i, j) == MazeData.WALL) {
-					util.setColor(MazeUtil.LightBlue);
-				}else {
-					util.setColor(MazeUtil.White);
-				}
-				if(data.path[i][j]) {
-					util.setColor(MazeUtil.Yellow);
-				}
-				if(data.result[i][j]) {
-					util.setColor(MazeUtil.Red);
+	// Bring the back buffer up to date for the current viewport; only dirty cells are redrawn unless a
+	// full redraw is pending or the viewport moved
+	private void updateViewport(int cw, int ch) {
+		MazeData d = data;
+		boolean full = fullRedraw;
+		fullRedraw = false;
+		cw = Math.max(1, cw);
+		ch = Math.max(1, ch);
+		if (d != layerData) {
+			layerData = d;
+			fitted = true;
+			mazeLayer = null;
+		}
+		if (fitted) fit(d, cw, ch);
+		if (mazeLayer == null || mazeLayer.getWidth() != cw || mazeLayer.getHeight() != ch
+				|| scale != layerScale || viewX != layerViewX || viewY != layerViewY) {
+			buildMazeLayer(d, cw, ch);
+			full = true;
+		}
+		if (full) {
+			dirtyCells.clear();
+			composeAll(d);
+			return;
+		}
+		int cols = d.M();
+		Graphics2D g = backBuffer.createGraphics();
+		try {
+			MazeUtil util = MazeUtil.getInstance(g);
+			for (int c = dirtyCells.nextSetBit(0); c >= 0; c = dirtyCells.nextSetBit(c + 1)) {
+				drawCell(util, g, d, c / cols, c % cols);
+			}
+		} finally {
+			g.dispose();
+		}
+		dirtyCells.clear();
+	}
+
+	// Whole maze in view; cells keep a whole number of pixels unless there are more cells than pixels
+	private void fit(MazeData d, int cw, int ch) {
+		double s = fitScale(d, cw, ch);
+		scale = s >= 1 ? Math.floor(s) : s;
+		viewX = 0;
+		viewY = 0;
+	}
+
+	private static double fitScale(MazeData d, int cw, int ch) {
+		return Math.min(cw / (double) Math.max(1, d.M()), ch / (double) Math.max(1, d.N()));
+	}
+
+	// Zoom by factor keeping the maze point under (px, py) in place
+	private void zoomAt(int px, int py, double factor) {
+		MazeData d = layerData;
+		if (d == null) return;
+		double col = viewX + px / scale, row = viewY + py / scale;
+		double min = fitScale(d, canvasRef.getWidth(), canvasRef.getHeight()) / 2;
+		scale = Math.max(min, Math.min(MAX_SCALE, scale * factor));
+		viewX = col - px / scale;
+		viewY = row - py / scale;
+		fitted = false;
+		canvasRef.repaint();
+	}
+
+	private void pan(int dx, int dy) {
+		viewX -= dx / scale;
+		viewY -= dy / scale;
+		fitted = false;
+		canvasRef.repaint();
+	}
+
+	// Canvas pixel where maze column col (row) starts; a pixel shows the cell under its centre
+	private int screenX(double col) {
+		return (int) Math.ceil((col - viewX) * scale - 0.5);
+	}
+
+	private int screenY(double row) {
+		return (int) Math.ceil((row - viewY) * scale - 0.5);
+	}
+
+	// Walls, roads and their labels of the visible cells; rebuilt when the viewport or maze changes.
+	// With more cells than pixels the frame is drawn from the tiles instead and this layer stays blank
+	private void buildMazeLayer(MazeData d, int cw, int ch) {
+		mazeLayer = new BufferedImage(cw, ch, BufferedImage.TYPE_INT_RGB);
+		backBuffer = new BufferedImage(cw, ch, BufferedImage.TYPE_INT_RGB);
+		layerScale = scale;
+		layerViewX = viewX;
+		layerViewY = viewY;
+		if (scale < 1) return;
+		int[] pixels = pixels(mazeLayer);
+		java.util.Arrays.fill(pixels, canvasRef.getBackground().getRGB());
+		int i0 = Math.max(0, (int) Math.floor(viewY)), i1 = Math.min(d.N(), (int) Math.ceil(viewY + ch / scale) + 1);
+		int j0 = Math.max(0, (int) Math.floor(viewX)), j1 = Math.min(d.M(), (int) Math.ceil(viewX + cw / scale) + 1);
+		for (int i = i0; i < i1; i++) {
+			for (int j = j0; j < j1; j++) {
+				fill(pixels, cw, ch, screenX(j), screenY(i), screenX(j + 1), screenY(i + 1), tiles.color(0, i, j, false));
+			}
+		}
+		if (!showLabels()) return;
+		Graphics2D g = mazeLayer.createGraphics();
+		try {
+			MazeUtil util = MazeUtil.getInstance(g);
+			for (int i = i0; i < i1; i++) {
+				for (int j = j0; j < j1; j++) {
+					drawLabel(util, g, d, i, j);
 				}
-				util.fillRectangle(j * w, i * h, w, h);
-
-				// Draw S/G for start/goal; else draw weight for road cells
-				if (i == data.getEntranceX() && j == data.getEntranceY()) {
-					util.setColor(Color.BLACK);
-					util.drawCenteredString("S", j * w, i * h, w, h);
-				} else if (i == data.getExitX() && j == data.getExitY()) {
-					util.setColor(Color.BLACK);
-					util.drawCenteredString("G", j * w, i * h, w, h);
-				} else if (data.getMazeChar(i, j) == MazeData.ROAD && data.weight != null && data.weight[i][j] > 0) {
-					util.setColor(Color.BLACK);
-					util.drawCenteredString(Integer.toString(data.weight[i][j]), j * w, i * h, w, h);
+			}
+		} finally {
+			g.dispose();
+		}
+	}
+
+	// Maze layer plus the marks of the visible cells, or every pixel from the tiles when zoomed out
+	private void composeAll(MazeData d) {
+		int cw = backBuffer.getWidth(), ch = backBuffer.getHeight();
+		if (scale < 1) {
+			rasterize(d, 0, 0, cw, ch);
+			return;
+		}
+		System.arraycopy(pixels(mazeLayer), 0, pixels(backBuffer), 0, cw * ch);
+		int i0 = Math.max(0, (int) Math.floor(viewY)), i1 = Math.min(d.N(), (int) Math.ceil(viewY + ch / scale) + 1);
+		int j0 = Math.max(0, (int) Math.floor(viewX)), j1 = Math.min(d.M(), (int) Math.ceil(viewX + cw / scale) + 1);
+		Graphics2D g = backBuffer.createGraphics();
+		try {
+			MazeUtil util = MazeUtil.getInstance(g);
+			for (int i = i0; i < i1; i++) {
+				for (int j = j0; j < j1; j++) {
+					if (tiles.mark(i, j) != 0) drawCell(util, g, d, i, j);
 				}
 			}
+		} finally {
+			g.dispose();
+		}
+	}
+
+	// A marked cell is filled with its mark colour, an unmarked one is copied from the maze layer. Zoomed
+	// out, the pixels around the cell are recoloured from the tiles of the level in view
+	private void drawCell(MazeUtil util, Graphics2D g, MazeData d, int i, int j) {
+		int cw = backBuffer.getWidth(), ch = backBuffer.getHeight();
+		int x0 = screenX(j), y0 = screenY(i), x1 = screenX(j + 1), y1 = screenY(i + 1);
+		if (scale < 1) {
+			rasterize(d, Math.max(0, x0 - 1), Math.max(0, y0 - 1), Math.min(cw, x1 + 2), Math.min(ch, y1 + 2));
+			return;
+		}
+		if (x1 <= 0 || y1 <= 0 || x0 >= cw || y0 >= ch) return;
+		int[] dst = pixels(backBuffer);
+		if (tiles.mark(i, j) != 0) {
+			fill(dst, cw, ch, x0, y0, x1, y1, tiles.color(0, i, j, true));
+			if (showLabels()) drawLabel(util, g, d, i, j);
+		} else {
+			int[] src = pixels(mazeLayer);
+			int from = Math.max(0, x0), to = Math.min(cw, x1);
+			for (int y = Math.max(0, y0); y < Math.min(ch, y1); y++) {
+				System.arraycopy(src, y * cw + from, dst, y * cw + from, to - from);
+			}
 		}
 	}
+
+	// Colour each pixel in [x0, x1) x [y0, y1) from the tile block under its centre, at the coarsest
+	// level whose blocks are no larger than a pixel; per-cell work is skipped entirely
+	private void rasterize(MazeData d, int x0, int y0, int x1, int y1) {
+		int cw = backBuffer.getWidth();
+		int[] dst = pixels(backBuffer);
+		int level = tiles.levelFor(1 / scale);
+		int background = canvasRef.getBackground().getRGB();
+		for (int py = y0; py < y1; py++) {
+			int i = (int) Math.floor(viewY + (py + 0.5) / scale);
+			boolean rowInside = i >= 0 && i < d.N();
+			for (int px = x0; px < x1; px++) {
+				int j = (int) Math.floor(viewX + (px + 0.5) / scale);
+				dst[py * cw + px] = rowInside && j >= 0 && j < d.M()
+						? tiles.color(level, i >> level, j >> level, true) : background;
+			}
+		}
+	}
+
+	private boolean showLabels() {
+		return scale >= LABEL_MIN_PX;
+	}
+
+	private static int[] pixels(BufferedImage image) {
+		return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+	}
+
+	private static void fill(int[] pixels, int cw, int ch, int x0, int y0, int x1, int y1, int rgb) {
+		x0 = Math.max(0, x0);
+		x1 = Math.min(cw, x1);
+		if (x0 >= x1) return;
+		for (int y = Math.max(0, y0); y < Math.min(ch, y1); y++) {
+			java.util.Arrays.fill(pixels, y * cw + x0, y * cw + x1, rgb);
+		}
+	}
+
+	// Draw S/G for start/goal; else draw weight for road cells. Clipped to the cell so a label never
+	// spills into a neighbour that is redrawn on its own
+	private void drawLabel(MazeUtil util, Graphics2D g, MazeData d, int i, int j) {
+		int x = screenX(j), y = screenY(i), w = screenX(j + 1) - x, h = screenY(i + 1) - y;
+		g.setClip(x, y, w, h);
+		if (i == d.getEntranceX() && j == d.getEntranceY()) {
+			util.setColor(Color.BLACK);
+			util.drawCenteredString("S", x, y, w, h);
+		} else if (i == d.getExitX() && j == d.getExitY()) {
+			util.setColor(Color.BLACK);
+			util.drawCenteredString("G", x, y, w, h);
+		} else if (d.getMazeChar(i, j) == MazeData.ROAD && d.weights() != null && d.weights()[i][j] > 0) {
+			util.setColor(Color.BLACK);
+			util.drawCenteredString(Integer.toString(d.weights()[i][j]), x, y, w, h);
+		}
+		g.setClip(null);
+	}
 	
+	// Ask for a new weight of the cell under the pointer, -1 for a wall, and hand it to the controller
+	private void editCellAt(int px, int py) {
+		MazeData d = data;
+		if (d == null || controlListener == null || !runButton.isEnabled()) return;
+		int i = (int) Math.floor(viewY + (py + 0.5) / scale), j = (int) Math.floor(viewX + (px + 0.5) / scale);
+		if (!d.inArea(i, j)) return;
+		String current = d.getMazeChar(i, j) == MazeData.WALL ? "-1" : Integer.toString(d.weights()[i][j]);
+		Object input = javax.swing.JOptionPane.showInputDialog(this, "Weight of cell (" + i + ", " + j + "), -1 for a wall:",
+			"Edit Cell", javax.swing.JOptionPane.PLAIN_MESSAGE, null, null, current);
+		if (input == null) return;
+		int w;
+		try {
+			w = Integer.parseInt(input.toString().trim());
+		} catch (NumberFormatException ex) {
+			w = 0;
+		}
+		if (w < 1 && w != -1) {
+			javax.swing.JOptionPane.showMessageDialog(this, "Weight must be a positive number or -1", "Edit Cell", javax.swing.JOptionPane.ERROR_MESSAGE);
+			return;
+		}
+		controlListener.onCellEdited(i, j, w);
+	}
+
+	// The maze itself changed at (x, y), not only its marks; EDT only. The tiles follow a wall that
+	// appeared or went, and the maze layer is rebuilt for the viewport with the next paint
+	public void cellChanged(int x, int y, boolean wallChanged) {
+		if (wallChanged && tiles != null) tiles.wallChanged(x, y, data.getMazeChar(x, y) == MazeData.WALL);
+		mazeLayer = null;
+		canvasRef.repaint();
+	}
+
+	// Wheel zooms around the pointer, dragging pans, a double click fits the whole maze again and a
+	// right click edits the weight of a cell
 	private class MazeCanvas extends JPanel{
 
+		MazeCanvas() {
+			MouseAdapter mouse = new MouseAdapter() {
+				private int lastX, lastY;
+
+				@Override
+				public void mousePressed(MouseEvent e) {
+					lastX = e.getX();
+					lastY = e.getY();
+				}
+
+				@Override
+				public void mouseDragged(MouseEvent e) {
+					pan(e.getX() - lastX, e.getY() - lastY);
+					lastX = e.getX();
+					lastY = e.getY();
+				}
+
+				@Override
+				public void mouseWheelMoved(MouseWheelEvent e) {
+					zoomAt(e.getX(), e.getY(), Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation()));
+				}
+
+				@Override
+				public void mouseClicked(MouseEvent e) {
+					if (javax.swing.SwingUtilities.isRightMouseButton(e)) {
+						editCellAt(e.getX(), e.getY());
+					} else if (e.getClickCount() == 2) {
+						fitted = true;
+						repaint();
+					}
+				}
+			};
+			addMouseListener(mouse);
+			addMouseMotionListener(mouse);
+			addMouseWheelListener(mouse);
+		}
+
 		@Override
 		protected void paintComponent(Graphics g) {
 			super.paintComponent(g);
-			MazeUtil util = MazeUtil.getInstance(g);
 			if(data != null) {
-				MazeFrame.this.paint(util);
+				updateViewport(getWidth(), getHeight());
+				g.drawImage(backBuffer, 0, 0, null);
 			}
 		}
 
@@ -275,26 +738,35 @@ public class MazeFrame  extends JFrame{
 		void onRunRequested(String algorithmName);
 		void onResetRequested();
 		void onImportRequested(String filePath);
+		void onCellEdited(int x, int y, int weight);
 	}
 
 	public int getDelayMs() {
 		return speedSlider != null ? speedSlider.getValue() : 10;
 	}
 
-	public void updateMetrics(Integer cost, Integer steps, Integer visited, Long timeMs, String algoName) {
+	// visitedBackward is the part of visited a bidirectional search expanded from the exit, null otherwise
+	public void updateMetrics(Integer cost, Integer steps, Integer visited, Integer visitedBackward, Long timeMs, String algoName) {
+		// Solvers report progress from their own thread; labels are only touched on the EDT
+		if (!javax.swing.SwingUtilities.isEventDispatchThread()) {
+			javax.swing.SwingUtilities.invokeLater(() -> updateMetrics(cost, steps, visited, visitedBackward, timeMs, algoName));
+			return;
+		}
 		if (algoName != null) {
 			setTitle("Maze Solver - " + algoName);
 		}
 		if (costLabel != null) costLabel.setText("Cost: " + (cost != null ? cost-1 : "-"));
 		if (stepsLabel != null) stepsLabel.setText("Steps: " + (steps != null ? steps : "-"));
-		if (visitedLabel != null) visitedLabel.setText("Visited: " + (visited != null ? visited : "-"));
+		if (visitedLabel != null) {
+			String split = visited != null && visitedBackward != null
+				? " (" + (visited - visitedBackward) + " fwd / " + visitedBackward + " bwd)" : "";
+			visitedLabel.setText("Visited: " + (visited != null ? visited : "-") + split);
+		}
 		if (timeLabel != null) timeLabel.setText("Time: " + (timeMs != null ? timeMs : "-") + "ms");
 	}
 
 	public int getBlockSize() {
-		int cols = (data != null ? data.M() : 1);
-		int cw = (canvasRef != null ? canvasRef.getWidth() : canvasWidth);
-		return Math.max(1, cw / Math.max(1, cols));
+		return Math.max(1, (int) scale);
 	}
 
 	public void resizeToBlock(int blockSize) {
@@ -0,0 +1,63 @@
+package com.nw.maze;
+
+import java.util.Random;
+
+/**
+ * Generates perfect mazes (exactly one route between any two roads) with the iterative
+ * recursive-backtracker. Roads sit on odd coordinates; like the old {@code N M} format the entrance
+ * is on the left edge, the exit on the right edge and roads get random weights in [1, 9].
+ */
+public class MazeGenerator {
+
+	private MazeGenerator() {}
+
+	public static MazeData generate(int rows, int cols, long seed) {
+		if (rows < 3 || cols < 3) {
+			throw new IllegalArgumentException("Maze must be at least 3x3: " + rows + "x" + cols);
+		}
+		Random rand = new Random(seed);
+		char[][] maze = new char[rows][cols];
+		for (int i = 0; i < rows; i++) {
+			java.util.Arrays.fill(maze[i], MazeData.WALL);
+		}
+		// Carve from (1,1); the stack holds cell codes x * cols + y
+		int lastRow = (rows - 2) | 1, lastCol = (cols - 2) | 1;
+		if (lastRow > rows - 2) lastRow -= 2;
+		if (lastCol > cols - 2) lastCol -= 2;
+		int[] stack = new int[((lastRow + 1) / 2) * ((lastCol + 1) / 2) + 1];
+		int top = 0;
+		stack[top++] = cols + 1;
+		maze[1][1] = MazeData.ROAD;
+		int[] dirs = new int[4];
+		while (top > 0) {
+			int cur = stack[top - 1];
+			int x = cur / cols, y = cur % cols;
+			int n = 0;
+			if (x - 2 >= 1 && maze[x - 2][y] == MazeData.WALL) dirs[n++] = 0;
+			if (y + 2 <= lastCol && maze[x][y + 2] == MazeData.WALL) dirs[n++] = 1;
+			if (x + 2 <= lastRow && maze[x + 2][y] == MazeData.WALL) dirs[n++] = 2;
+			if (y - 2 >= 1 && maze[x][y - 2] == MazeData.WALL) dirs[n++] = 3;
+			if (n == 0) {
+				top--;
+				continue;
+			}
+			int d = dirs[rand.nextInt(n)];
+			int dx = d == 0 ? -1 : d == 2 ? 1 : 0;
+			int dy = d == 1 ? 1 : d == 3 ? -1 : 0;
+			maze[x + dx][y + dy] = MazeData.ROAD;
+			maze[x + 2 * dx][y + 2 * dy] = MazeData.ROAD;
+			stack[top++] = (x + 2 * dx) * cols + y + 2 * dy;
+		}
+		// Open the entrance and exit on the outer walls, extending to the edge for even sizes
+		maze[1][0] = MazeData.ROAD;
+		for (int j = lastCol + 1; j < cols; j++) maze[lastRow][j] = MazeData.ROAD;
+
+		int[][] weight = new int[rows][cols];
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				weight[i][j] = maze[i][j] == MazeData.ROAD ? 1 + rand.nextInt(9) : -1;
+			}
+		}
+		return new MazeData(maze, weight, 1, 0, lastRow, cols - 1);
+	}
+}
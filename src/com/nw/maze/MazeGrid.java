@@ -0,0 +1,199 @@
+package com.nw.maze;
+
+/**
+ * Flat row-major view of a {@link MazeData} for the solvers. The grid is padded with a one-cell wall
+ * border, so every open cell has four valid neighbours at {@code index + offset(d)} and the inner loops
+ * need no bounds checks. Each cell holds its entry cost, or {@link #WALL} for walls and the border.
+ * Costs are kept at the width they were loaded with: a binary maze with 1- or 2-byte cells stays a
+ * {@code byte[]} or {@code char[]}, everything else is an {@code int[]}. Read them through {@link #cost}.
+ * An edit patches its cell in place and bumps {@link #version}, which caches of per-cell data compare
+ * against to tell that they are stale.
+ */
+public final class MazeGrid {
+
+	public static final int WALL = 0;
+
+	private final int rows, cols, stride;
+	// Exactly one of these holds the cells; bytes and chars are unsigned
+	private final byte[] bytes;
+	private final char[] chars;
+	private final int[] ints;
+	private final int size;
+	private final int[] offsets;
+	private final int start, goal;
+	// Computed on first use, 0 until then; an upper bound once costs have been lowered in place
+	private int maxCost;
+	// In-place cost changes so far; only the root's counts
+	private volatile int version;
+	// Grid this one was derived from by withEndpoints, or itself
+	private final MazeGrid root;
+
+	MazeGrid(MazeData data) {
+		this(data.N(), data.M(), null, null, buildCells(data), data.getEntranceX(), data.getEntranceY(), data.getExitX(), data.getExitY());
+	}
+
+	// Wrap an already padded cell array, e.g. one loaded by MazeBinary; exactly one of the arrays is given
+	MazeGrid(int rows, int cols, byte[] bytes, char[] chars, int[] ints, int entranceX, int entranceY, int exitX, int exitY) {
+		this.rows = rows;
+		this.cols = cols;
+		this.stride = cols + 2;
+		this.bytes = bytes;
+		this.chars = chars;
+		this.ints = ints;
+		this.size = bytes != null ? bytes.length : chars != null ? chars.length : ints.length;
+		// Same order as the solvers' direction table: up, right, down, left
+		this.offsets = new int[]{ -stride, 1, stride, -1 };
+		this.root = this;
+		this.start = inArea(entranceX, entranceY) ? index(entranceX, entranceY) : -1;
+		this.goal = inArea(exitX, exitY) ? index(exitX, exitY) : -1;
+	}
+
+	// Same cells and costs with other endpoints; the cell array is shared, not copied
+	private MazeGrid(MazeGrid base, int entranceX, int entranceY, int exitX, int exitY) {
+		this.rows = base.rows;
+		this.cols = base.cols;
+		this.stride = base.stride;
+		this.bytes = base.bytes;
+		this.chars = base.chars;
+		this.ints = base.ints;
+		this.size = base.size;
+		this.offsets = base.offsets;
+		this.root = base.root;
+		this.start = inArea(entranceX, entranceY) ? index(entranceX, entranceY) : -1;
+		this.goal = inArea(exitX, exitY) ? index(exitX, exitY) : -1;
+	}
+
+	MazeGrid withEndpoints(int entranceX, int entranceY, int exitX, int exitY) {
+		return new MazeGrid(this, entranceX, entranceY, exitX, exitY);
+	}
+
+	private static int[] buildCells(MazeData data) {
+		int rows = data.N(), cols = data.M(), stride = cols + 2;
+		int[] cells = new int[(rows + 2) * stride];
+		int[][] weight = data.weights();
+		for (int i = 0; i < rows; i++) {
+			int base = (i + 1) * stride + 1;
+			for (int j = 0; j < cols; j++) {
+				if (data.getMazeChar(i, j) != MazeData.ROAD) continue;
+				int w = weight != null ? weight[i][j] : 1;
+				cells[base + j] = w > 0 ? w : 1;
+			}
+		}
+		return cells;
+	}
+
+	private boolean inArea(int x, int y) {
+		return x >= 0 && x < rows && y >= 0 && y < cols;
+	}
+
+	public int index(int x, int y) {
+		return (x + 1) * stride + y + 1;
+	}
+
+	public int row(int index) {
+		return index / stride - 1;
+	}
+
+	public int col(int index) {
+		return index % stride - 1;
+	}
+
+	// Unpadded row-major code x * cols + y of a padded index
+	public int toCell(int index) {
+		return row(index) * cols + col(index);
+	}
+
+	public boolean isOpen(int index) {
+		return cost(index) != WALL;
+	}
+
+	// Cost of entering the cell; WALL for walls and the border
+	public int cost(int index) {
+		if (ints != null) return ints[index];
+		return bytes != null ? bytes[index] & 0xFF : chars[index];
+	}
+
+	// Bytes per cell in memory: 1, 2 or 4
+	public int cellWidth() {
+		return bytes != null ? 1 : chars != null ? 2 : 4;
+	}
+
+	public int offset(int direction) {
+		return offsets[direction];
+	}
+
+	public int[] offsets() {
+		return offsets;
+	}
+
+	// Number of slots in the padded array; valid indices are [0, size())
+	public int size() {
+		return size;
+	}
+
+	public int rows() {
+		return rows;
+	}
+
+	public int cols() {
+		return cols;
+	}
+
+	public int stride() {
+		return stride;
+	}
+
+	// Padded index of the entrance, -1 when outside the maze
+	public int start() {
+		return start;
+	}
+
+	// Padded index of the exit, -1 when outside the maze
+	public int goal() {
+		return goal;
+	}
+
+	// Shared by all endpoint views of the same cells; caches of per-cell data are keyed on it
+	public MazeGrid root() {
+		return root;
+	}
+
+	// Highest entry cost, at least 1, or more after edits; the first call on the root grid scans the cells
+	public int maxCost() {
+		if (root != this) return root.maxCost();
+		int max = maxCost;
+		if (max == 0) {
+			max = 1;
+			for (int i = 0; i < size; i++) max = Math.max(max, cost(i));
+			maxCost = max;
+		}
+		return max;
+	}
+
+	// Number of in-place cost changes, shared by all endpoint views
+	public int version() {
+		return root.version;
+	}
+
+	// Patch the entry cost of one cell for this grid and all its views. False when the cost does not fit
+	// the narrow width the cells are stored at; the caller then builds a new grid instead
+	boolean setCost(int index, int cost) {
+		if (ints != null) {
+			ints[index] = cost;
+		} else if (bytes != null && cost <= 0xFF) {
+			bytes[index] = (byte) cost;
+		} else if (chars != null && cost <= 0xFFFF) {
+			chars[index] = (char) cost;
+		} else {
+			return false;
+		}
+		MazeGrid r = root;
+		if (r.maxCost != 0 && cost > r.maxCost) r.maxCost = cost;
+		r.version++;
+		return true;
+	}
+
+	public int manhattan(int a, int b) {
+		return Math.abs(a / stride - b / stride) + Math.abs(a % stride - b % stride);
+	}
+}
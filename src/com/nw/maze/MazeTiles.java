@@ -0,0 +1,144 @@
+package com.nw.maze;
+
+/**
+ * Mipmap of per-block counts for drawing mazes with more cells than pixels. Level L aggregates blocks
+ * of 2^L x 2^L cells: walls, travelled (path) cells and result cells, so a block's colour (wall
+ * density, visited heat) is known without touching the cells it covers. Level 0 is the cells.
+ * <p>
+ * The marks are the EDT's own copy, fed from {@link RenderScheduler} batches one cell at a time or as
+ * a whole; painting reads them here and never the path/result arrays a solver may be writing.
+ */
+final class MazeTiles {
+
+	private final MazeData data;
+	private final int levels;
+	// Block grid size and counts per level; index 0 is unused
+	private final int[] blockRows, blockCols;
+	private final int[][] walls, path, result;
+	// Marks per cell as x * M + y: bit 0 path, bit 1 result
+	private final byte[] marks;
+
+	MazeTiles(MazeData data) {
+		this.data = data;
+		int n = data.N(), m = data.M();
+		int l = 1;
+		while ((1 << (l - 1)) < Math.max(n, m)) l++;
+		this.levels = l;
+		blockRows = new int[levels];
+		blockCols = new int[levels];
+		walls = new int[levels][];
+		path = new int[levels][];
+		result = new int[levels][];
+		for (int k = 1; k < levels; k++) {
+			blockRows[k] = (n + (1 << k) - 1) >> k;
+			blockCols[k] = (m + (1 << k) - 1) >> k;
+			walls[k] = new int[blockRows[k] * blockCols[k]];
+			path[k] = new int[walls[k].length];
+			result[k] = new int[walls[k].length];
+		}
+		marks = new byte[n * m];
+		if (levels > 1) {
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < m; j++) {
+					if (data.getMazeChar(i, j) == MazeData.WALL) walls[1][(i >> 1) * blockCols[1] + (j >> 1)]++;
+				}
+			}
+			for (int k = 2; k < levels; k++) aggregate(walls, k);
+		}
+	}
+
+	// Coarsest useful level for the given number of cells per pixel
+	int levelFor(double cellsPerPixel) {
+		int k = 0;
+		while (k + 1 < levels && (1 << (k + 1)) <= cellsPerPixel) k++;
+		return k;
+	}
+
+	// Replace every mark and recount
+	void setAll(byte[] all) {
+		int m = data.M();
+		System.arraycopy(all, 0, marks, 0, marks.length);
+		if (levels == 1) return;
+		java.util.Arrays.fill(path[1], 0);
+		java.util.Arrays.fill(result[1], 0);
+		for (int c = 0; c < marks.length; c++) {
+			byte mark = marks[c];
+			if (mark != 0) {
+				int b = (c / m >> 1) * blockCols[1] + (c % m >> 1);
+				path[1][b] += mark & 1;
+				result[1][b] += mark >> 1;
+			}
+		}
+		for (int k = 2; k < levels; k++) {
+			aggregate(path, k);
+			aggregate(result, k);
+		}
+	}
+
+	// Set the marks of one cell (x * M + y) and update the counts of the blocks above it
+	void set(int cell, int mark) {
+		byte old = marks[cell];
+		if (mark == old) return;
+		marks[cell] = (byte) mark;
+		int x = cell / data.M(), y = cell % data.M();
+		int dp = (mark & 1) - (old & 1);
+		int dr = (mark >> 1) - (old >> 1);
+		for (int k = 1; k < levels; k++) {
+			int b = (x >> k) * blockCols[k] + (y >> k);
+			path[k][b] += dp;
+			result[k][b] += dr;
+		}
+	}
+
+	// Cell (i, j) became a wall or stopped being one; the counts of the blocks above it follow
+	void wallChanged(int i, int j, boolean wall) {
+		for (int k = 1; k < levels; k++) walls[k][(i >> k) * blockCols[k] + (j >> k)] += wall ? 1 : -1;
+	}
+
+	int mark(int i, int j) {
+		return marks[i * data.M() + j];
+	}
+
+	/**
+	 * RGB colour of block (bi, bj) at the level: wall density blends road white into wall blue; with
+	 * the marks, any result cell shows red and travelled cells tint the block yellow by their share.
+	 */
+	int color(int level, int bi, int bj, boolean withMarks) {
+		if (level == 0) {
+			int mark = withMarks ? mark(bi, bj) : 0;
+			if ((mark & 2) != 0) return MazeUtil.Red.getRGB();
+			if (mark != 0) return MazeUtil.Yellow.getRGB();
+			return (data.getMazeChar(bi, bj) == MazeData.WALL ? MazeUtil.LightBlue : MazeUtil.White).getRGB();
+		}
+		int b = bi * blockCols[level] + bj;
+		int size = 1 << level;
+		int total = Math.min(size, data.N() - bi * size) * Math.min(size, data.M() - bj * size);
+		int base = blend(MazeUtil.White.getRGB(), MazeUtil.LightBlue.getRGB(), walls[level][b] / (double) total);
+		if (!withMarks) return base;
+		if (result[level][b] > 0) return MazeUtil.Red.getRGB();
+		int travelled = path[level][b];
+		if (travelled == 0) return base;
+		int open = Math.max(1, total - walls[level][b]);
+		return blend(base, MazeUtil.Yellow.getRGB(), 0.35 + 0.65 * Math.min(1.0, travelled / (double) open));
+	}
+
+	// Level k counts as the sum of the four level k-1 children
+	private void aggregate(int[][] counts, int k) {
+		int[] src = counts[k - 1], dst = counts[k];
+		java.util.Arrays.fill(dst, 0);
+		int srcCols = blockCols[k - 1];
+		for (int i = 0; i < blockRows[k - 1]; i++) {
+			int row = (i >> 1) * blockCols[k];
+			for (int j = 0; j < srcCols; j++) {
+				dst[row + (j >> 1)] += src[i * srcCols + j];
+			}
+		}
+	}
+
+	private static int blend(int a, int b, double t) {
+		int r = (int) Math.round(((a >> 16) & 0xFF) * (1 - t) + ((b >> 16) & 0xFF) * t);
+		int g = (int) Math.round(((a >> 8) & 0xFF) * (1 - t) + ((b >> 8) & 0xFF) * t);
+		int bl = (int) Math.round((a & 0xFF) * (1 - t) + (b & 0xFF) * t);
+		return 0xFF000000 | (r << 16) | (g << 8) | bl;
+	}
+}
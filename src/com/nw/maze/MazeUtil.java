@@ -15,6 +15,10 @@ public class MazeUtil {
 	public static final Color White = new Color(0xFFFFFF);
 	
 	private Graphics2D g2d;
+	// Label font for the last cell size; deriving a font per label dominated repaint time
+	private Font labelFont;
+	private FontMetrics labelMetrics;
+	private float labelSize;
 
 	private MazeUtil(Graphics2D g2d) {
 		this.g2d = g2d;
@@ -45,9 +49,13 @@ public class MazeUtil {
 		if (text == null) return;
 		int baseSize = Math.min(w, h);
 		float fontSize = Math.max(10f, baseSize * 0.5f);
-		Font font = g2d.getFont().deriveFont(Font.PLAIN, fontSize);
-		g2d.setFont(font);
-		FontMetrics fm = g2d.getFontMetrics(font);
+		if (labelFont == null || fontSize != labelSize) {
+			labelFont = g2d.getFont().deriveFont(Font.PLAIN, fontSize);
+			labelMetrics = g2d.getFontMetrics(labelFont);
+			labelSize = fontSize;
+		}
+		g2d.setFont(labelFont);
+		FontMetrics fm = labelMetrics;
 		int tx = x + (w - fm.stringWidth(text)) / 2;
 		int ty = y + (h - fm.getHeight()) / 2 + fm.getAscent();
 		g2d.drawString(text, tx, ty);
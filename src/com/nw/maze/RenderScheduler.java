@@ -0,0 +1,99 @@
+package com.nw.maze;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands mark changes from the thread that makes them (a solver, the trace player) to the EDT without
+ * either side waiting on the other. The writer appends each changed cell together with its marks, read
+ * back from the arrays it has just written, to a batch only it touches, and pushes batches onto a
+ * lock-free stack at most once per frame. The EDT takes the whole stack once per frame and applies it
+ * to its own copy of the marks, so painting only sees values the writer had finished writing and any
+ * number of changes between two frames costs one repaint.
+ * <p>
+ * There is one writer at a time. Handing the role to another thread must happen-before its first
+ * write, as starting a thread or invokeLater does.
+ */
+final class RenderScheduler {
+
+	static final int FRAME_MS = 1000 / 60;
+	private static final long FRAME_NANOS = 1_000_000_000L / 60;
+
+	// Changes of one writer between two publications; either a full snapshot or single cells
+	static final class Batch {
+		final MazeData data;
+		// Every cell's marks (bit 0 path, bit 1 result), for a full redraw; null for a batch of cells
+		byte[] all;
+		// Changed cells as (x * M + y) << 2 | marks
+		int[] cells = new int[64];
+		int size;
+		Batch next;
+
+		Batch(MazeData data) {
+			this.data = data;
+		}
+
+		private void add(int change) {
+			if (size == cells.length) cells = java.util.Arrays.copyOf(cells, size * 2);
+			cells[size++] = change;
+		}
+	}
+
+	private final AtomicReference<Batch> published = new AtomicReference<>();
+	// Writer side
+	private Batch open;
+	private long lastPublish;
+
+	// Everything may have changed: snapshot all marks and publish at once
+	void full(MazeData data) {
+		Batch b = new Batch(data);
+		int m = data.M();
+		b.all = new byte[data.N() * m];
+		boolean[][] path = data.path(), result = data.result();
+		for (int i = 0; i < data.N(); i++) {
+			for (int j = 0; j < m; j++) {
+				b.all[i * m + j] = (byte) ((path[i][j] ? 1 : 0) | (result[i][j] ? 2 : 0));
+			}
+		}
+		// Changes not yet published are covered by the snapshot
+		open = b;
+		publish();
+	}
+
+	// The marks of one cell changed; published with the next frame's batch
+	void cell(int x, int y) {
+		Batch b = open;
+		if (b == null || !b.data.inArea(x, y)) return;
+		MazeData d = b.data;
+		b.add((x * d.M() + y) << 2 | (d.path()[x][y] ? 1 : 0) | (d.result()[x][y] ? 2 : 0));
+		if (System.nanoTime() - lastPublish >= FRAME_NANOS) publish();
+	}
+
+	// Publish pending cells now, when the writer is done for a while
+	void flush() {
+		if (open != null && open.size > 0) publish();
+	}
+
+	private void publish() {
+		Batch b = open;
+		open = new Batch(b.data);
+		lastPublish = System.nanoTime();
+		Batch head;
+		do {
+			head = published.get();
+			b.next = head;
+		} while (!published.compareAndSet(head, b));
+	}
+
+	// EDT side: everything published since the last call, oldest first, or null
+	Batch take() {
+		Batch b = published.getAndSet(null);
+		Batch first = null;
+		while (b != null) {
+			Batch next = b.next;
+			b.next = first;
+			first = b;
+			b = next;
+		}
+		return first;
+	}
+}
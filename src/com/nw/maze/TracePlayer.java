@@ -0,0 +1,122 @@
+package com.nw.maze;
+
+import javax.swing.Timer;
+
+import com.nw.maze.engine.ExplorationTrace;
+
+/**
+ * Replays an {@link ExplorationTrace} onto the marks of a maze. Runs on the EDT only: a Swing timer
+ * applies a batch of events per tick, sized from the speed slider, so playback speed has nothing to do
+ * with how fast the search ran. Seeking backwards clears the marks and re-applies the events from the
+ * start without drawing, which is only array writes even for long traces.
+ */
+final class TracePlayer {
+
+	private static final int TICK_MS = 16;
+	// At full speed a whole trace plays in about this many ticks
+	private static final int FULL_SPEED_TICKS = 120;
+
+	private final MazeFrame frame;
+	private final Timer timer;
+	private MazeData data;
+	private ExplorationTrace trace;
+	private ExplorationTrace.Cursor cursor;
+
+	TracePlayer(MazeFrame frame) {
+		this.frame = frame;
+		this.timer = new Timer(TICK_MS, e -> tick());
+	}
+
+	void load(MazeData data, ExplorationTrace trace) {
+		timer.stop();
+		this.data = data;
+		this.trace = trace;
+		clearMarks();
+		cursor = trace.cursor();
+		frame.render(data);
+		frame.onReplayPosition(0, trace.events(), false);
+	}
+
+	// Stop and forget the trace, e.g. before a new run or after a reset
+	void unload() {
+		timer.stop();
+		data = null;
+		trace = null;
+		cursor = null;
+		frame.onReplayPosition(0, 0, false);
+	}
+
+	ExplorationTrace trace() {
+		return trace;
+	}
+
+	boolean isPlaying() {
+		return timer.isRunning();
+	}
+
+	void play() {
+		if (trace == null) return;
+		if (cursor.index() >= trace.events()) seek(0);
+		timer.start();
+		frame.onReplayPosition(cursor.index(), trace.events(), true);
+	}
+
+	void pause() {
+		timer.stop();
+		if (trace != null) frame.onReplayPosition(cursor.index(), trace.events(), false);
+	}
+
+	// Show the state after the first position events
+	void seek(int position) {
+		if (trace == null || position == cursor.index()) return;
+		if (position < cursor.index()) {
+			clearMarks();
+			cursor = trace.cursor();
+		}
+		while (cursor.index() < position && cursor.next()) apply(false);
+		frame.render(data);
+		frame.onReplayPosition(cursor.index(), trace.events(), isPlaying());
+	}
+
+	private void tick() {
+		int delay = frame.getDelayMs();
+		int batch = delay == 0 ? Math.max(1, trace.events() / FULL_SPEED_TICKS) : Math.max(1, TICK_MS / delay);
+		timer.setDelay(Math.max(TICK_MS, delay));
+		// Relaxations are recorded but not drawn, so only drawn events count towards the batch
+		while (batch > 0 && cursor.next()) {
+			if (apply(true)) batch--;
+		}
+		frame.flushRender();
+		if (cursor.index() >= trace.events()) timer.stop();
+		frame.onReplayPosition(cursor.index(), trace.events(), isPlaying());
+	}
+
+	// Apply the cursor's event to the marks; returns whether it changed what is drawn
+	private boolean apply(boolean draw) {
+		int x = cursor.x(), y = cursor.y();
+		switch (cursor.kind()) {
+			case ExplorationTrace.EXPAND:
+			case ExplorationTrace.CANDIDATE:
+				data.path()[x][y] = true;
+				break;
+			case ExplorationTrace.RESULT:
+				data.result()[x][y] = true;
+				break;
+			case ExplorationTrace.CLEAR:
+				for (int i = 0; i < data.N(); i++) java.util.Arrays.fill(data.path()[i], false);
+				if (draw) frame.render(data);
+				return true;
+			default:
+				return false;
+		}
+		if (draw) frame.renderCell(x, y);
+		return true;
+	}
+
+	private void clearMarks() {
+		for (int i = 0; i < data.N(); i++) {
+			java.util.Arrays.fill(data.path()[i], false);
+			java.util.Arrays.fill(data.result()[i], false);
+		}
+	}
+}
@@ -0,0 +1,341 @@
+package com.nw.maze.cli;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import com.nw.maze.MazeBinary;
+import com.nw.maze.MazeData;
+import com.nw.maze.MazeGrid;
+import com.nw.maze.engine.GeneticSolver;
+import com.nw.maze.engine.LandmarkIndex;
+import com.nw.maze.engine.SolveResult;
+import com.nw.maze.engine.SolveStats;
+import com.nw.maze.engine.Solver;
+import com.nw.maze.engine.Solvers;
+import com.nw.maze.metrics.Metrics;
+
+/**
+ * Headless batch mode for route validation: loads every maze given as a file, directory or glob, solves
+ * it with each algorithm and streams one report row per (maze, algorithm) as CSV or JSON lines. Mazes
+ * are loaded and solved in parallel on a worker pool, one maze per task, and never touch AWT, so this
+ * runs with {@code -Djava.awt.headless=true}:
+ *
+ *   java -Djava.awt.headless=true -cp bin com.nw.maze.cli.MazeCli [--algos=Dijkstra,A*] [--threads=N]
+ *        [--format=csv|jsonl] [--out=report.csv] [--ga-generations=300] [--metrics] [--save-alt]
+ *        (file | dir | glob)...
+ *
+ * A directory contributes its *.txt and *.mzb files; a glob such as {@code m*.txt} or
+ * {@code mazes/**.txt} is matched below its fixed leading directories. Each row has the cost, steps and
+ * visited cells from the solver, split per frontier for the bidirectional searches, the route cost
+ * recomputed from the maze, whether the route is a valid walk from entrance to exit, load and solve
+ * times in ns, bytes allocated by the solve, its queue pushes, pops, decrease-keys and relaxations,
+ * cells expanded per second and the peak heap use of the process so far. The genetic solver stops after
+ * {@code --ga-generations} generations, 300 by default, so a maze it cannot solve never stalls the
+ * batch. {@code --save-alt} writes each maze's landmark index next to it as {@code <maze>.alt}, which
+ * later "A* (ALT)" runs load instead of rebuilding; without it nothing is written to the maze
+ * directories. {@code --metrics} prints the process-wide {@link Metrics} to stderr at the end. The exit
+ * status is 0 when every maze loaded and every route was valid, 1 otherwise and 2 for bad arguments.
+ */
+public final class MazeCli {
+
+    private static final String[] COLUMNS = { "file", "rows", "cols", "algorithm", "solved", "cost", "route_cost",
+        "steps", "visited", "visited_fwd", "visited_bwd", "valid", "load_ns", "solve_ns", "alloc_bytes", "pushes", "pops", "decrease_keys", "relaxations",
+        "expanded_per_sec", "peak_heap_bytes", "error" };
+
+    private List<String> algos = new ArrayList<>();
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean jsonl;
+    private boolean metrics;
+    private boolean saveAlt;
+    // The GA runs until it reaches the goal unless capped, so a batch always caps it; same default as the GUI
+    private int gaGenerations = 300;
+    private PrintStream out = System.out;
+    private final AtomicBoolean failed = new AtomicBoolean();
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    // Runs the batch and returns the exit status
+    public static int run(String[] args) {
+        MazeCli cli = new MazeCli();
+        List<Path> files;
+        try {
+            files = cli.parse(args);
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: MazeCli [--algos=a,b] [--threads=N] [--format=csv|jsonl] [--out=file] [--ga-generations=N] [--metrics] [--save-alt] (file | dir | glob)...");
+            return 2;
+        }
+        Metrics.init();
+        try {
+            cli.solveAll(files);
+            if (cli.metrics) System.err.print(Metrics.format(Metrics.snapshot()));
+        } finally {
+            if (cli.out != System.out) cli.out.close();
+        }
+        return cli.failed.get() ? 1 : 0;
+    }
+
+    private List<Path> parse(String[] args) throws IOException {
+        for (String name : Solvers.names()) {
+            if (!"Genetic".equals(name)) algos.add(name);
+        }
+        TreeSet<Path> files = new TreeSet<>();
+        String outFile = null;
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                files.addAll(expand(arg));
+                continue;
+            }
+            String[] kv = arg.split("=", 2);
+            String value = kv.length > 1 ? kv[1] : "";
+            switch (kv[0]) {
+                case "--algos":
+                    algos = Arrays.asList(value.split(","));
+                    for (String algo : algos) Solvers.byName(algo); // fail on unknown names before solving
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "--format":
+                    if (!value.equals("csv") && !value.equals("jsonl")) throw new IllegalArgumentException("Unknown format: " + value);
+                    jsonl = value.equals("jsonl");
+                    break;
+                case "--out":
+                    outFile = value;
+                    break;
+                case "--ga-generations":
+                    gaGenerations = Integer.parseInt(value);
+                    if (gaGenerations <= 0) throw new IllegalArgumentException("--ga-generations must be positive");
+                    break;
+                case "--metrics":
+                    metrics = true;
+                    break;
+                case "--save-alt":
+                    saveAlt = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (files.isEmpty()) throw new IllegalArgumentException("No maze files given");
+        if (threads <= 0) throw new IllegalArgumentException("--threads must be positive");
+        if (outFile != null) out = new PrintStream(Files.newOutputStream(Paths.get(outFile)), false, "UTF-8");
+        return new ArrayList<>(files);
+    }
+
+    // A maze file, the maze files of a directory, or the files matching a glob
+    private static List<Path> expand(String arg) throws IOException {
+        List<Path> found = new ArrayList<>();
+        int glob = indexOfAny(arg, "*?[{");
+        if (glob < 0) {
+            Path p = Paths.get(arg);
+            if (Files.isDirectory(p)) {
+                try (Stream<Path> s = Files.list(p)) {
+                    s.filter(f -> Files.isRegularFile(f) && isMazeFile(f)).forEach(found::add);
+                }
+            } else if (Files.isRegularFile(p)) {
+                found.add(p);
+            } else {
+                throw new IllegalArgumentException("No such maze file or directory: " + arg);
+            }
+            return found;
+        }
+        // Walk from the directories before the first wildcard, only as deep as the pattern reaches
+        String sep = arg.indexOf('/') >= 0 || arg.indexOf('\\') < 0 ? "/" : "\\";
+        int cut = arg.lastIndexOf(sep, glob);
+        Path base = cut < 0 ? Paths.get(".") : Paths.get(arg.substring(0, cut + 1));
+        String pattern = arg.substring(cut + 1);
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+        int depth = pattern.contains("**") ? Integer.MAX_VALUE : pattern.split(sep.equals("/") ? "/" : "\\\\").length;
+        try (Stream<Path> s = Files.walk(base, depth)) {
+            s.filter(f -> Files.isRegularFile(f) && matcher.matches(base.relativize(f))).forEach(found::add);
+        }
+        return found;
+    }
+
+    private static int indexOfAny(String s, String chars) {
+        for (int i = 0; i < s.length(); i++) {
+            if (chars.indexOf(s.charAt(i)) >= 0) return i;
+        }
+        return -1;
+    }
+
+    private static boolean isMazeFile(Path f) {
+        String name = f.getFileName().toString();
+        return name.endsWith(".txt") || name.endsWith(MazeBinary.EXTENSION);
+    }
+
+    private void solveAll(List<Path> files) {
+        if (!jsonl) out.println(String.join(",", COLUMNS));
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, files.size()), r -> {
+            Thread t = new Thread(r, "maze-cli");
+            t.setDaemon(true);
+            return t;
+        });
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (Path f : files) {
+            tasks.add(() -> {
+                solveFile(f);
+                return null;
+            });
+        }
+        try {
+            pool.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void solveFile(Path f) {
+        String file = f.toString();
+        long t0 = System.nanoTime();
+        MazeData data;
+        try {
+            data = new MazeData(file);
+            data.grid();
+        } catch (RuntimeException e) {
+            failed.set(true);
+            report(new Object[]{ file, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+                null, null, null, null, null, peakHeap(), String.valueOf(e.getMessage()) });
+            return;
+        }
+        long loadNanos = System.nanoTime() - t0;
+        if (saveAlt) {
+            try {
+                LandmarkIndex.save(data);
+            } catch (IOException e) {
+                failed.set(true);
+                System.err.println("Cannot write the landmark index of " + file + ": " + e.getMessage());
+            }
+        }
+        for (String algo : algos) {
+            Solver solver = "Genetic".equals(algo) ? Solvers.metered(new GeneticSolver(gaConfig())) : Solvers.byName(algo);
+            long s0 = System.nanoTime();
+            SolveResult r;
+            try {
+                r = solver.solve(data);
+            } catch (RuntimeException e) {
+                failed.set(true);
+                report(new Object[]{ file, data.N(), data.M(), algo, null, null, null, null, null, null, null, null, loadNanos,
+                    null, null, null, null, null, null, null, peakHeap(), String.valueOf(e.getMessage()) });
+                continue;
+            }
+            long solveNanos = System.nanoTime() - s0;
+            SolveStats stats = r.getStats();
+            long routeCost = routeCost(data, r);
+            boolean valid = !r.isSolved() || routeCost >= 0;
+            if (!valid) failed.set(true);
+            report(new Object[]{ file, data.N(), data.M(), algo, r.isSolved(), nullIfNone(r.getCost()),
+                r.isSolved() ? routeCost : null, nullIfNone(r.getSteps()), nullIfNone(r.getVisited()),
+                nullIfNone(r.getVisitedForward()), nullIfNone(r.getVisitedBackward()), valid,
+                loadNanos, solveNanos, stats.getAllocatedBytes() >= 0 ? stats.getAllocatedBytes() : null,
+                stats.getPushes(), stats.getPops(), stats.getDecreaseKeys(), stats.getRelaxations(),
+                stats.getExpandedPerSecond() >= 0 ? stats.getExpandedPerSecond() : null, peakHeap(), null });
+        }
+    }
+
+    private GeneticSolver.Config gaConfig() {
+        GeneticSolver.Config cfg = new GeneticSolver.Config();
+        cfg.maxGenerations = gaGenerations;
+        return cfg;
+    }
+
+    /**
+     * Cost of the result's route recomputed from the maze (every cell after the entrance costs its
+     * weight), or -1 when it is not a walk from the entrance to the exit over open, adjacent cells.
+     */
+    static long routeCost(MazeData data, SolveResult r) {
+        int n = r.getPathLength();
+        if (n == 0) return -1;
+        if (r.getPathX(0) != data.getEntranceX() || r.getPathY(0) != data.getEntranceY()) return -1;
+        if (r.getPathX(n - 1) != data.getExitX() || r.getPathY(n - 1) != data.getExitY()) return -1;
+        MazeGrid grid = data.grid();
+        long cost = 0;
+        for (int i = 0; i < n; i++) {
+            int x = r.getPathX(i), y = r.getPathY(i);
+            if (!data.inArea(x, y) || !grid.isOpen(grid.index(x, y))) return -1;
+            if (i == 0) continue;
+            if (Math.abs(x - r.getPathX(i - 1)) + Math.abs(y - r.getPathY(i - 1)) != 1) return -1;
+            cost += grid.cost(grid.index(x, y));
+        }
+        return cost;
+    }
+
+    private static Integer nullIfNone(int value) {
+        return value == SolveResult.NONE ? null : value;
+    }
+
+    // Highest heap use of the process so far, summed over the heap pools
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) peak += pool.getPeakUsage().getUsed();
+        }
+        return peak;
+    }
+
+    // One row per call, whole lines only, flushed so a long run can be followed
+    private void report(Object[] row) {
+        StringBuilder sb = new StringBuilder();
+        if (jsonl) {
+            sb.append('{');
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) sb.append(',');
+                sb.append('"').append(COLUMNS[i]).append("\":");
+                Object v = row[i];
+                if (v instanceof String) json(sb, (String) v); else sb.append(v);
+            }
+            sb.append('}');
+        } else {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) sb.append(',');
+                if (row[i] != null) csv(sb, row[i].toString());
+            }
+        }
+        synchronized (out) {
+            out.println(sb);
+            out.flush();
+        }
+    }
+
+    private static void csv(StringBuilder sb, String v) {
+        if (v.indexOf(',') < 0 && v.indexOf('"') < 0 && v.indexOf('\n') < 0 && v.indexOf('\r') < 0) {
+            sb.append(v);
+            return;
+        }
+        sb.append('"').append(v.replace("\"", "\"\"")).append('"');
+    }
+
+    private static void json(StringBuilder sb, String v) {
+        sb.append('"');
+        for (int i = 0; i < v.length(); i++) {
+            char c = v.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+        sb.append('"');
+    }
+}
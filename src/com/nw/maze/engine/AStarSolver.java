@@ -0,0 +1,109 @@
+package com.nw.maze.engine;
+
+import java.util.function.IntUnaryOperator;
+
+import com.nw.maze.MazeData;
+import com.nw.maze.MazeGrid;
+
+/**
+ * A* guided by the exact cost-to-exit {@link DistanceField} when one is cached for the grid and exit,
+ * and by the Manhattan bound otherwise. A solve never builds the field itself: that is a reverse Dijkstra
+ * over the whole maze, which a one-shot solve would pay for without reporting it as visited cells. Callers
+ * that solve towards the same exit repeatedly run {@link #precompute} first; those solves then only
+ * expand cells on cheapest paths, and cells the exit cannot be reached from are never queued. With
+ * landmarks the heuristic is the {@link LandmarkIndex} bound instead, which serves any exit.
+ */
+public class AStarSolver implements Solver {
+
+    private final boolean landmarks;
+
+    public AStarSolver() {
+        this(false);
+    }
+
+    public AStarSolver(boolean landmarks) {
+        this.landmarks = landmarks;
+    }
+
+    // Build the exact cost-to-exit field of the maze for the solves that follow, outside of any of them.
+    // It is kept until the maze is edited or released
+    public static void precompute(MazeData data) {
+        MazeGrid grid = data.grid();
+        if (grid.goal() != -1) DistanceField.toGoal(grid);
+    }
+
+    @Override
+    public String name() {
+        return landmarks ? "A* (ALT)" : "A*";
+    }
+
+    @Override
+    public SolveResult solve(MazeData data, SolveListener listener) {
+        long t0 = System.nanoTime();
+        MazeGrid grid = data.grid();
+        SearchContext ctx = SearchContext.acquire(grid.size());
+        try {
+            int[] offsets = grid.offsets();
+            ParentDirections parent = ctx.parent();
+            IndexedMinHeap open = ctx.heap();
+
+            int start = grid.start();
+            int goal = grid.goal();
+            // g = cost from start; the heap key is f = g + h, h computed once per cell when first queued
+            IntUnaryOperator h0 = heuristic(data, grid, goal);
+            // A walled entrance is left like in the other solvers; only open cells have a bound
+            int hs = start == -1 ? DistanceField.UNREACHABLE : grid.isOpen(start) ? h0.applyAsInt(start) : 0;
+            if (hs != DistanceField.UNREACHABLE) {
+                ctx.setDist(start, 0);
+                open.offer(start, hs);
+            }
+
+            int visitedCount = 0; boolean solved = false;
+            while (!open.isEmpty() && !listener.isCancelled()) {
+                int cur = open.poll();
+                ctx.close(cur); visitedCount++;
+                listener.onVisit(grid.row(cur), grid.col(cur));
+                if (cur == goal) { solved = true; break; }
+                int base = ctx.dist(cur);
+                for (int dir = 0; dir < 4; dir++) {
+                    int next = cur + offsets[dir];
+                    int w = grid.cost(next);
+                    if (w == MazeGrid.WALL || ctx.isClosed(next)) continue;
+                    int newCost = base + w;
+                    int old = ctx.dist(next);
+                    if (newCost < old) {
+                        // f - g stays equal to h for a queued cell, so only g needs to change on decrease
+                        int h = open.contains(next) ? open.keyOf(next) - old : h0.applyAsInt(next);
+                        if (h == DistanceField.UNREACHABLE) continue;
+                        ctx.setDist(next, newCost);
+                        parent.set(next, dir);
+                        open.offer(next, newCost + h);
+                        listener.onRelax(grid.row(next), grid.col(next));
+                    }
+                }
+            }
+            long t1 = System.nanoTime();
+            if (!solved) {
+                return new SolveResult(name(), false, SolveResult.NONE, SolveResult.NONE, visitedCount, null, grid.cols(), t1 - t0);
+            }
+            int[] path = parent.tracePath(grid, start, goal);
+            return new SolveResult(name(), true, ctx.dist(goal), path.length, visitedCount, path, grid.cols(), t1 - t0);
+        } finally {
+            ctx.release();
+        }
+    }
+
+    // Lower bound on the cost to the goal, UNREACHABLE for cells the goal cannot be reached from
+    private IntUnaryOperator heuristic(MazeData data, MazeGrid grid, int goal) {
+        if (goal == -1) return v -> DistanceField.UNREACHABLE;
+        if (landmarks) {
+            LandmarkIndex alt = LandmarkIndex.of(data);
+            return v -> alt.lowerBound(grid, v, goal);
+        }
+        DistanceField field = DistanceField.cachedToGoal(grid);
+        if (field != null) return v -> field.to(grid, v);
+        // Every move costs at least 1, so the Manhattan distance is admissible and consistent
+        int goalRow = grid.row(goal), goalCol = grid.col(goal);
+        return v -> Math.abs(grid.row(v) - goalRow) + Math.abs(grid.col(v) - goalCol);
+    }
+}
@@ -0,0 +1,188 @@
+package com.nw.maze.engine;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.nw.maze.MazeData;
+
+/**
+ * Answers many (start, goal) queries against one loaded maze concurrently. Every query runs on an
+ * endpoint view of the maze ({@link MazeData#withEndpoints}), so the grid and caches keyed on it are
+ * shared read-only while each task has its own search state and its own solver from the supplier, so
+ * solvers that keep state between solves, like {@link LpaStarSolver}, are never shared. Queries run on virtual threads when the
+ * runtime has them (Java 21+) and on a fixed pool of platform threads otherwise; at most
+ * {@code parallelism} run at once, so a long query stream is consumed as results drain.
+ * <p>
+ * Results are handed to the sink one at a time in completion order, together with each query's
+ * latency from submission to result, and the returned {@link Stats} summarise throughput and latency
+ * percentiles of the batch.
+ */
+public final class BatchSolver {
+
+    // One (start, goal) pair in maze coordinates
+    public static final class Query {
+        public final int startX, startY, goalX, goalY;
+
+        public Query(int startX, int startY, int goalX, int goalY) {
+            this.startX = startX;
+            this.startY = startY;
+            this.goalX = goalX;
+            this.goalY = goalY;
+        }
+    }
+
+    // Result of one query and the time from its submission until it was solved
+    public static final class Answer {
+        public final Query query;
+        public final SolveResult result;
+        public final long latencyNanos;
+
+        Answer(Query query, SolveResult result, long latencyNanos) {
+            this.query = query;
+            this.result = result;
+            this.latencyNanos = latencyNanos;
+        }
+    }
+
+    // Throughput and latency distribution of a finished batch
+    public static final class Stats {
+        private final long[] latencies;
+        private final long elapsedNanos;
+        private final int solved;
+
+        Stats(long[] latencies, long elapsedNanos, int solved) {
+            this.latencies = latencies;
+            this.elapsedNanos = elapsedNanos;
+            this.solved = solved;
+            Arrays.sort(latencies);
+        }
+
+        public int count() {
+            return latencies.length;
+        }
+
+        public int solved() {
+            return solved;
+        }
+
+        public long elapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double queriesPerSecond() {
+            return elapsedNanos > 0 ? latencies.length * 1e9 / elapsedNanos : 0;
+        }
+
+        // Latency at percentile p in [0, 100], nearest-rank; 0 for an empty batch
+        public long percentileNanos(double p) {
+            if (latencies.length == 0) return 0;
+            int rank = (int) Math.ceil(p / 100.0 * latencies.length);
+            return latencies[Math.max(0, Math.min(latencies.length - 1, rank - 1))];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d queries (%d solved) in %dms: %.0f q/s, p50=%dus p90=%dus p99=%dus max=%dus",
+                count(), solved, elapsedNanos / 1_000_000L, queriesPerSecond(),
+                percentileNanos(50) / 1000, percentileNanos(90) / 1000, percentileNanos(99) / 1000,
+                percentileNanos(100) / 1000);
+        }
+    }
+
+    private final Supplier<Solver> solvers;
+    private final int parallelism;
+
+    public BatchSolver(Supplier<Solver> solvers, int parallelism) {
+        this.solvers = solvers;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    public Stats solve(MazeData data, Iterable<Query> queries, Consumer<Answer> sink) {
+        return solve(data, queries.iterator(), sink);
+    }
+
+    public Stats solve(MazeData data, Iterator<Query> queries, Consumer<Answer> sink) {
+        data.grid(); // build the shared grid once instead of racing on it from the first tasks
+        Semaphore inFlight = new Semaphore(parallelism);
+        Collector collector = new Collector(sink);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        ExecutorService executor = virtualThreadExecutor();
+        // A virtual thread lives for one query, so it hands its search state on when done
+        boolean recycle = executor != null;
+        if (executor == null) executor = platformExecutor();
+        long t0 = System.nanoTime();
+        try {
+            while (queries.hasNext() && failure.get() == null) {
+                Query q = queries.next();
+                inFlight.acquire();
+                long submitted = System.nanoTime();
+                executor.execute(() -> {
+                    try {
+                        SolveResult r = solvers.get().solve(data.withEndpoints(q.startX, q.startY, q.goalX, q.goalY));
+                        collector.accept(new Answer(q, r, System.nanoTime() - submitted));
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        if (recycle) SearchContext.recycleThreadContexts();
+                        inFlight.release();
+                    }
+                });
+            }
+            // Wait for the last tasks by taking every permit back
+            inFlight.acquire(parallelism);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            executor.shutdown();
+        }
+        if (failure.get() != null) throw new RuntimeException("Batch query failed", failure.get());
+        long elapsed = System.nanoTime() - t0;
+        return collector.stats(elapsed);
+    }
+
+    // Serialises sink calls and records latencies for the stats
+    private static final class Collector {
+        private final Consumer<Answer> sink;
+        private long[] latencies = new long[1024];
+        private int count, solved;
+
+        Collector(Consumer<Answer> sink) {
+            this.sink = sink;
+        }
+
+        synchronized void accept(Answer a) {
+            if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+            latencies[count++] = a.latencyNanos;
+            if (a.result.isSolved()) solved++;
+            if (sink != null) sink.accept(a);
+        }
+
+        synchronized Stats stats(long elapsedNanos) {
+            return new Stats(Arrays.copyOf(latencies, count), elapsedNanos, solved);
+        }
+    }
+
+    // Virtual threads when the runtime provides them, looked up reflectively to keep building on Java 17
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private ExecutorService platformExecutor() {
+        return Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "maze-batch");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.nw.maze.engine;
+
+import com.nw.maze.MazeData;
+import com.nw.maze.MazeGrid;
+
+// Breadth-first search; ignores weights and reports only steps
+public class BfsSolver implements Solver {
+
+    @Override
+    public String name() {
+        return "BFS";
+    }
+
+    @Override
+    public SolveResult solve(MazeData data, SolveListener listener) {
+        long t0 = System.nanoTime();
+        MazeGrid grid = data.grid();
+        SearchContext ctx = SearchContext.acquire(grid.size());
+        try {
+            int[] offsets = grid.offsets();
+            ParentDirections parent = ctx.parent();
+            IntQueue queue = ctx.queue();
+            int start = grid.start();
+            int goal = grid.goal();
+            if (start != -1) {
+                queue.add(start);
+                ctx.discover(start);
+            }
+
+            int visitedCount = 0;
+            boolean solved = false;
+
+            while (!queue.isEmpty() && !listener.isCancelled()) {
+                int cur = queue.poll();
+                visitedCount++;
+                listener.onVisit(grid.row(cur), grid.col(cur));
+                if (cur == goal) { solved = true; break; }
+                for (int dir = 0; dir < 4; dir++) {
+                    int next = cur + offsets[dir];
+                    if (grid.cost(next) != MazeGrid.WALL && !ctx.isDiscovered(next)) {
+                        ctx.discover(next);
+                        parent.set(next, dir);
+                        queue.add(next);
+                        listener.onRelax(grid.row(next), grid.col(next));
+                    }
+                }
+            }
+
+            long t1 = System.nanoTime();
+            if (!solved) {
+                return new SolveResult(name(), false, SolveResult.NONE, SolveResult.NONE, visitedCount, null, grid.cols(), t1 - t0);
+            }
+            int[] path = parent.tracePath(grid, start, goal);
+            return new SolveResult(name(), true, SolveResult.NONE, path.length, visitedCount, path, grid.cols(), t1 - t0);
+        } finally {
+            ctx.release();
+        }
+    }
+}
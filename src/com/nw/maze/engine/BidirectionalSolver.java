@@ -0,0 +1,121 @@
+package com.nw.maze.engine;
+
+import com.nw.maze.MazeData;
+import com.nw.maze.MazeGrid;
+
+/**
+ * Bidirectional Dijkstra / A*: one search forward from the entrance and one backward from the exit.
+ * Moving u -> v costs the entry weight of v, so the backward search pays the weight of the cell it
+ * leaves. The A* variant uses the average potential p(v) = (h_goal(v) - h_start(v)) / 2 for the
+ * forward side and -p(v) for the backward side, which keeps both reduced graphs consistent. With
+ * that choice the search can stop as soon as the two queue minimums sum to at least the best
+ * meeting cost found so far. Keys are doubled to keep the halved potentials integral.
+ */
+public class BidirectionalSolver implements Solver {
+
+    private final boolean heuristic;
+
+    public BidirectionalSolver(boolean heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    @Override
+    public String name() {
+        return heuristic ? "Bidirectional A*" : "Bidirectional Dijkstra";
+    }
+
+    @Override
+    public SolveResult solve(MazeData data, SolveListener listener) {
+        long t0 = System.nanoTime();
+        MazeGrid grid = data.grid();
+        SearchContext fwd = SearchContext.acquire(grid.size());
+        SearchContext bwd = SearchContext.acquire(grid.size());
+        try {
+            int[] offsets = grid.offsets();
+            int start = grid.start();
+            int goal = grid.goal();
+            IndexedMinHeap fq = fwd.heap();
+            IndexedMinHeap bq = bwd.heap();
+
+            int visitedCount = 0;
+            int visitedBackward = 0;
+            long best = Long.MAX_VALUE;   // best start -> meet -> goal cost seen so far
+            int meet = -1;
+            // A forward search can never enter a walled exit, so neither may the backward one start there
+            if (start != -1 && goal != -1 && (grid.isOpen(goal) || start == goal)) {
+                fwd.setDist(start, 0);
+                fq.offer(start, potential(grid, start, start, goal));
+                bwd.setDist(goal, 0);
+                bq.offer(goal, -potential(grid, goal, start, goal));
+                if (start == goal) { best = 0; meet = start; }
+            }
+
+            while (!fq.isEmpty() && !bq.isEmpty() && !listener.isCancelled()) {
+                int fk = fq.peekKey(), bk = bq.peekKey();
+                if (best != Long.MAX_VALUE && (long) fk + bk >= 2 * best) break;
+                boolean forward = fk <= bk;
+                SearchContext self = forward ? fwd : bwd;
+                SearchContext other = forward ? bwd : fwd;
+                IndexedMinHeap q = forward ? fq : bq;
+                int cur = q.poll();
+                self.close(cur);
+                visitedCount++;
+                if (!forward) visitedBackward++;
+                listener.onVisit(grid.row(cur), grid.col(cur));
+                int base = self.dist(cur);
+                for (int dir = 0; dir < 4; dir++) {
+                    int next = cur + offsets[dir];
+                    int w = grid.cost(next);
+                    if (w == MazeGrid.WALL || self.isClosed(next)) continue;
+                    // Backward edges next -> cur pay the weight of cur
+                    int newCost = base + (forward ? w : grid.cost(cur));
+                    if (newCost < self.dist(next)) {
+                        self.setDist(next, newCost);
+                        if (forward) {
+                            self.parent().set(next, dir);
+                            q.offer(next, 2 * newCost + potential(grid, next, start, goal));
+                        } else {
+                            self.parent().set(next, (dir + 2) & 3);  // direction from next back towards cur
+                            q.offer(next, 2 * newCost - potential(grid, next, start, goal));
+                        }
+                        listener.onRelax(grid.row(next), grid.col(next));
+                    }
+                    if (other.isDiscovered(next)) {
+                        long total = (long) self.dist(next) + other.dist(next);
+                        if (total < best) { best = total; meet = next; }
+                    }
+                }
+            }
+
+            long t1 = System.nanoTime();
+            if (meet == -1 || listener.isCancelled()) {
+                return new SolveResult(name(), false, SolveResult.NONE, SolveResult.NONE, visitedCount, visitedBackward, null, grid.cols(), t1 - t0);
+            }
+            int[] path = joinPath(grid, fwd.parent(), bwd.parent(), start, meet, goal);
+            return new SolveResult(name(), true, (int) best, path.length, visitedCount, visitedBackward, path, grid.cols(), t1 - t0);
+        } finally {
+            bwd.release();
+            fwd.release();
+        }
+    }
+
+    // Doubled forward potential h_goal(v) - h_start(v); zero for plain Dijkstra
+    private int potential(MazeGrid grid, int v, int start, int goal) {
+        return heuristic ? grid.manhattan(v, goal) - grid.manhattan(v, start) : 0;
+    }
+
+    // Forward parents lead from meet back to start; backward parents lead from meet on to goal
+    private static int[] joinPath(MazeGrid grid, ParentDirections fwd, ParentDirections bwd, int start, int meet, int goal) {
+        int[] head = fwd.tracePath(grid, start, meet);
+        int tail = 0;
+        for (int c = meet; c != goal; c += grid.offset(bwd.get(c))) tail++;
+        int[] path = new int[head.length + tail];
+        System.arraycopy(head, 0, path, 0, head.length);
+        int i = head.length;
+        for (int c = meet; c != goal; ) {
+            c += grid.offset(bwd.get(c));
+            path[i++] = grid.toCell(c);
+        }
+        return path;
+    }
+}
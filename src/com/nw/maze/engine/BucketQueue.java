@@ -0,0 +1,91 @@
+package com.nw.maze.engine;
+
+import java.util.Arrays;
+
+/**
+ * Circular bucket queue for Dial's algorithm. With edge costs in [1, maxStep] every queued key lies in
+ * [cursor, cursor + maxStep], so maxStep + 1 buckets indexed by key modulo that count suffice.
+ * Buckets are intrusive doubly-linked lists over int arrays, giving O(1) offer and decrease-key.
+ */
+final class BucketQueue implements MonotoneQueue {
+
+    private final int[] head;  // bucket -> first item, -1 when empty
+    private final int[] next;
+    private final int[] prev;
+    private final int[] key;
+    private final boolean[] queued;
+    private int size;
+    // Operations since the last clear, read by SearchContext when a search ends
+    long pushes, decreaseKeys, pops;
+    private int cursor;        // smallest key that can still be queued
+
+    BucketQueue(int capacity, int maxStep) {
+        head = new int[maxStep + 1];
+        next = new int[capacity];
+        prev = new int[capacity];
+        key = new int[capacity];
+        queued = new boolean[capacity];
+        Arrays.fill(head, -1);
+    }
+
+    int bucketCount() {
+        return head.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void offer(int item, int k) {
+        if (queued[item]) {
+            if (k >= key[item]) return;
+            unlink(item);
+            decreaseKeys++;
+        } else {
+            pushes++;
+            queued[item] = true;
+            size++;
+        }
+        key[item] = k;
+        int b = k % head.length;
+        int h = head[b];
+        next[item] = h;
+        prev[item] = -1;
+        if (h != -1) prev[h] = item;
+        head[b] = item;
+    }
+
+    @Override
+    public int poll() {
+        int b = cursor % head.length;
+        while (head[b] == -1) {
+            cursor++;
+            if (++b == head.length) b = 0;
+        }
+        int item = head[b];
+        unlink(item);
+        queued[item] = false;
+        size--;
+        pops++;
+        return item;
+    }
+
+    @Override
+    public void clear() {
+        for (int b = 0; b < head.length; b++) {
+            for (int i = head[b]; i != -1; i = next[i]) queued[i] = false;
+            head[b] = -1;
+        }
+        size = 0;
+        pushes = decreaseKeys = pops = 0;
+        cursor = 0;
+    }
+
+    private void unlink(int item) {
+        int p = prev[item], n = next[item];
+        if (p != -1) next[p] = n; else head[key[item] % head.length] = n;
+        if (n != -1) prev[n] = p;
+    }
+}
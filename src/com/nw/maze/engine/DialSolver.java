@@ -0,0 +1,73 @@
+package com.nw.maze.engine;
+
+import com.nw.maze.MazeData;
+import com.nw.maze.MazeGrid;
+
+// Dijkstra backed by Dial's circular bucket queue; falls back to a radix heap for wide weight ranges
+public class DialSolver implements Solver {
+
+    // Above this many buckets the cursor scan over empty buckets outweighs the radix heap
+    static final int MAX_BUCKET_WEIGHT = 1024;
+
+    @Override
+    public String name() {
+        return "Dial";
+    }
+
+    @Override
+    public SolveResult solve(MazeData data, SolveListener listener) {
+        long t0 = System.nanoTime();
+        MazeGrid grid = data.grid();
+        SearchContext ctx = SearchContext.acquire(grid.size());
+        try {
+            int[] offsets = grid.offsets();
+            ParentDirections parent = ctx.parent();
+            MonotoneQueue pq = ctx.monotoneQueue(grid.maxCost());
+
+            int goal = grid.goal();
+            int start = grid.start();
+            if (start != -1) {
+                ctx.setDist(start, 0);
+                pq.offer(start, 0);
+            }
+
+            int visitedCount = 0;
+            boolean solved = false;
+
+            while (!pq.isEmpty() && !listener.isCancelled()) {
+                int cur = pq.poll();
+                ctx.close(cur);
+                visitedCount++;
+                listener.onVisit(grid.row(cur), grid.col(cur));
+
+                if (cur == goal) {
+                    solved = true;
+                    break;
+                }
+
+                int base = ctx.dist(cur);
+                for (int dir = 0; dir < 4; dir++) {
+                    int next = cur + offsets[dir];
+                    int w = grid.cost(next);
+                    if (w == MazeGrid.WALL || ctx.isClosed(next)) continue;
+                    int newCost = base + w;
+                    if (newCost < ctx.dist(next)) {
+                        ctx.setDist(next, newCost);
+                        parent.set(next, dir);
+                        pq.offer(next, newCost);
+                        listener.onRelax(grid.row(next), grid.col(next));
+                    }
+                }
+            }
+
+            long t1 = System.nanoTime();
+            if (!solved) {
+                return new SolveResult(name(), false, SolveResult.NONE, SolveResult.NONE, visitedCount, null, grid.cols(), t1 - t0);
+            }
+            int[] path = parent.tracePath(grid, start, goal);
+            return new SolveResult(name(), true, ctx.dist(goal), path.length, visitedCount, path, grid.cols(), t1 - t0);
+        } finally {
+            ctx.release();
+        }
+    }
+}
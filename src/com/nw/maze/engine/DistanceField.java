@@ -0,0 +1,126 @@
+package com.nw.maze.engine;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.nw.maze.MazeGrid;
+
+/**
+ * Exact shortest-path costs between one source cell and every cell of a {@link MazeGrid}, from a single
+ * Dijkstra run. Entering a cell costs its weight, so a path and its reverse only differ in which end
+ * pays: {@code d(v, s) = d(s, v) - cost(v) + cost(s)}. One field therefore answers both directions.
+ * <p>
+ * Fields towards an exit are cached per {@link MazeGrid#root()} and exit, the few most recently used
+ * per root, so query views made with {@link com.nw.maze.MazeData#withEndpoints} share them and workers
+ * asking for different exits do not evict each other's field. A field remembers the grid's
+ * {@link MazeGrid#version()} it was computed at, so a weight edit, which patches the grid in place, makes
+ * the cached fields of that grid stale and they are recomputed on next use.
+ */
+public final class DistanceField {
+
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    // Exits with a cached field per grid; a field is as large as the grid, so only a few are kept
+    private static final int FIELDS_PER_GRID = 4;
+    // Weak keys: the fields go away together with the grid they were computed on. Lookups reorder the
+    // LRU maps, so every access holds the outer map's lock
+    private static final Map<MazeGrid, Map<Integer, DistanceField>> TO_GOAL = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final int source;
+    // Entry cost of the source, WALL when it is walled
+    private final int sourceCost;
+    private final int[] dist;
+    private final int version;
+
+    private DistanceField(int source, int sourceCost, int[] dist, int version) {
+        this.source = source;
+        this.sourceCost = sourceCost;
+        this.dist = dist;
+        this.version = version;
+    }
+
+    // Cost-to-exit field of the grid, computed when none is cached for its exit
+    public static DistanceField toGoal(MazeGrid grid) {
+        DistanceField f = cachedToGoal(grid);
+        if (f == null) {
+            f = from(grid, grid.goal());
+            synchronized (TO_GOAL) {
+                TO_GOAL.computeIfAbsent(grid.root(), g -> new LinkedHashMap<Integer, DistanceField>(8, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Integer, DistanceField> eldest) {
+                        return size() > FIELDS_PER_GRID;
+                    }
+                }).put(grid.goal(), f);
+            }
+        }
+        return f;
+    }
+
+    // Cached cost-to-exit field of the grid, or null when none is cached for its exit and current costs
+    public static DistanceField cachedToGoal(MazeGrid grid) {
+        synchronized (TO_GOAL) {
+            Map<Integer, DistanceField> fields = TO_GOAL.get(grid.root());
+            DistanceField f = fields != null ? fields.get(grid.goal()) : null;
+            return f != null && f.version == grid.version() ? f : null;
+        }
+    }
+
+    // Field of costs from source, a padded index or -1 for none
+    public static DistanceField from(MazeGrid grid, int source) {
+        int version = grid.version();
+        int[] offsets = grid.offsets();
+        int[] dist = new int[grid.size()];
+        Arrays.fill(dist, UNREACHABLE);
+        if (source == -1) return new DistanceField(source, MazeGrid.WALL, dist, version);
+        SearchContext ctx = SearchContext.acquire(grid.size());
+        try {
+            IndexedMinHeap pq = ctx.heap();
+            dist[source] = 0;
+            pq.offer(source, 0);
+            while (!pq.isEmpty()) {
+                int cur = pq.poll();
+                int base = dist[cur];
+                for (int dir = 0; dir < 4; dir++) {
+                    int next = cur + offsets[dir];
+                    int w = grid.cost(next);
+                    if (w == MazeGrid.WALL) continue;
+                    int newCost = base + w;
+                    if (newCost < dist[next]) {
+                        dist[next] = newCost;
+                        pq.offer(next, newCost);
+                    }
+                }
+            }
+        } finally {
+            ctx.release();
+        }
+        return new DistanceField(source, grid.cost(source), dist, version);
+    }
+
+    // The raw costs from the source, shared with the field; for preprocessing within the engine
+    int[] distances() {
+        return dist;
+    }
+
+    public int source() {
+        return source;
+    }
+
+    // Cost of the cheapest path from the source to index, or UNREACHABLE
+    public int from(int index) {
+        return dist[index];
+    }
+
+    // Cost of the cheapest path from index to the source, or UNREACHABLE; a walled source cannot be entered.
+    // The grid is the one the field was computed on, or a view of it, for the entry cost of index
+    public int to(MazeGrid grid, int index) {
+        int d = dist[index];
+        if (d == UNREACHABLE) return UNREACHABLE;
+        if (index == source) return 0;
+        if (sourceCost == MazeGrid.WALL) return UNREACHABLE;
+        return d - grid.cost(index) + sourceCost;
+    }
+}
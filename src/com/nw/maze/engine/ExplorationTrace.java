@@ -0,0 +1,231 @@
+package com.nw.maze.engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Compact record of what a solver did, so a search that ran at full speed can be replayed, scrubbed
+ * or saved afterwards. Events go into one growing byte array as LEB128 varints: the low three bits
+ * hold the kind, the rest the row and column deltas from the previous event's cell, zigzagged and
+ * bit-interleaved. Any cell within a step or two of the previous one, which covers the relaxations
+ * around an expanded cell, then takes a single byte however wide the maze is.
+ * <p>
+ * A trace has a single writer, the solving thread through {@link #record}; read it with a
+ * {@link Cursor} once the solve has returned.
+ */
+public final class ExplorationTrace {
+
+    public static final String EXTENSION = ".mzt";
+
+    // Event kinds: a cell expanded, a cell's tentative cost lowered, a cell of the current candidate
+    // route (GA), a cell of the final path, and clearing the travelled marks before a new candidate
+    public static final int EXPAND = 0, RELAX = 1, CANDIDATE = 2, RESULT = 3, CLEAR = 4;
+
+    private static final int MAGIC = 0x4D5A5431; // "MZT1"
+    private static final int MAX_BYTES = Integer.MAX_VALUE - 8;
+
+    private final int rows, cols;
+    private byte[] bytes;
+    private int length, events, lastX, lastY;
+
+    public ExplorationTrace(int rows, int cols) {
+        this(rows, cols, new byte[4096], 0, 0);
+    }
+
+    private ExplorationTrace(int rows, int cols, byte[] bytes, int length, int events) {
+        // Interleaving two zigzagged deltas of up to 30 bits keeps an event within one long
+        if (rows > 1 << 29 || cols > 1 << 29) throw new IllegalArgumentException("Maze too large to trace: " + rows + "x" + cols);
+        this.rows = rows;
+        this.cols = cols;
+        this.bytes = bytes;
+        this.length = length;
+        this.events = events;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public int events() {
+        return events;
+    }
+
+    public int byteSize() {
+        return length;
+    }
+
+    // Append one event; the cell of a CLEAR is ignored
+    public void add(int kind, int cell) {
+        long delta = 0;
+        if (kind != CLEAR) {
+            int x = cell / cols, y = cell % cols;
+            delta = spread(zigzag(x - lastX)) | (spread(zigzag(y - lastY)) << 1);
+            lastX = x;
+            lastY = y;
+        }
+        long v = (delta << 3) | kind;
+        if (length + 10 > bytes.length) grow();
+        while ((v & ~0x7FL) != 0) {
+            bytes[length++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        bytes[length++] = (byte) v;
+        events++;
+    }
+
+    // Append every cell of a route as events of the given kind
+    public void addPath(int kind, int[] cells) {
+        for (int cell : cells) add(kind, cell);
+    }
+
+    // Append the final path of a result
+    public void addResult(SolveResult r) {
+        for (int i = 0; i < r.getPathLength(); i++) add(RESULT, r.getPathX(i) * cols + r.getPathY(i));
+    }
+
+    // Listener that appends what the solver reports and passes every callback on to target
+    public SolveListener record(SolveListener target) {
+        return new SolveListener() {
+            @Override
+            public void onVisit(int x, int y) {
+                add(EXPAND, x * cols + y);
+                target.onVisit(x, y);
+            }
+
+            @Override
+            public void onRelax(int x, int y) {
+                add(RELAX, x * cols + y);
+                target.onRelax(x, y);
+            }
+
+            @Override
+            public void onCandidate(int[] path) {
+                add(CLEAR, 0);
+                addPath(CANDIDATE, path);
+                target.onCandidate(path);
+            }
+
+            @Override
+            public void onProgress(int bestCost, long elapsedNanos) {
+                target.onProgress(bestCost, elapsedNanos);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return target.isCancelled();
+            }
+        };
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    // Decodes the events in order; call next() before reading the first one
+    public final class Cursor {
+        private int pos, index, kind, x, y;
+
+        public boolean next() {
+            if (pos >= length) return false;
+            long v = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[pos++];
+                v |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            kind = (int) (v & 7);
+            if (kind != CLEAR) {
+                x += unzigzag(compact(v >>> 3));
+                y += unzigzag(compact(v >>> 4));
+            }
+            index++;
+            return true;
+        }
+
+        // Number of events consumed so far
+        public int index() {
+            return index;
+        }
+
+        public int kind() {
+            return kind;
+        }
+
+        public int x() {
+            return x;
+        }
+
+        public int y() {
+            return y;
+        }
+    }
+
+    // Header: magic, rows, cols, event count, byte length; then the encoded events
+    public void write(Path file) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(20);
+        b.putInt(MAGIC).putInt(rows).putInt(cols).putInt(events).putInt(length);
+        b.flip();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (b.hasRemaining()) ch.write(b);
+            ByteBuffer body = ByteBuffer.wrap(bytes, 0, length);
+            while (body.hasRemaining()) ch.write(body);
+        }
+    }
+
+    public static ExplorationTrace read(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer b = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            if (b.remaining() < 20 || b.getInt() != MAGIC) throw new IllegalArgumentException("Not a trace file: " + file);
+            int rows = b.getInt(), cols = b.getInt(), events = b.getInt(), length = b.getInt();
+            if (rows <= 0 || cols <= 0 || events < 0 || length < 0 || length > b.remaining()) {
+                throw new IllegalArgumentException("Corrupt trace file: " + file);
+            }
+            byte[] bytes = new byte[Math.max(16, length)];
+            b.get(bytes, 0, length);
+            return new ExplorationTrace(rows, cols, bytes, length, events);
+        }
+    }
+
+    private void grow() {
+        if (bytes.length >= MAX_BYTES) throw new IllegalStateException("Exploration trace too large");
+        bytes = Arrays.copyOf(bytes, (int) Math.min(MAX_BYTES, bytes.length * 2L));
+    }
+
+    private static long zigzag(int v) {
+        return ((v << 1) ^ (v >> 31)) & 0xFFFFFFFFL;
+    }
+
+    private static int unzigzag(long v) {
+        return (int) ((v >>> 1) ^ -(v & 1));
+    }
+
+    // Bits 0..31 of v moved to the even bit positions
+    private static long spread(long v) {
+        v = (v | (v << 16)) & 0x0000FFFF0000FFFFL;
+        v = (v | (v << 8)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v << 2)) & 0x3333333333333333L;
+        return (v | (v << 1)) & 0x5555555555555555L;
+    }
+
+    // Inverse of spread: the even bits of v packed together
+    private static long compact(long v) {
+        v &= 0x5555555555555555L;
+        v = (v | (v >>> 1)) & 0x3333333333333333L;
+        v = (v | (v >>> 2)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v >>> 4)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v >>> 8)) & 0x0000FFFF0000FFFFL;
+        return (v | (v >>> 16)) & 0x00000000FFFFFFFFL;
+    }
+}
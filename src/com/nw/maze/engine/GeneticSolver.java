@@ -0,0 +1,674 @@
+package com.nw.maze.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.nw.maze.MazeData;
+import com.nw.maze.MazeGrid;
+import com.nw.maze.metrics.GenerationEvent;
+import com.nw.maze.metrics.Metrics;
+
+/**
+ * Genetic algorithm with goal-directed bias and repair to reach goal. Fitness evaluation and
+ * breeding run in parallel on a {@link ForkJoinPool}: the population is cut into a fixed number of
+ * chunks per thread, and each chunk draws from its own {@link SplittableRandom} split off the seeded
+ * root in chunk order. A run is therefore reproducible for a given seed and thread count.
+ * <p>
+ * With more than one island, each island evolves its own population on its own thread and every
+ * {@code migrationInterval} generations sends copies of its best genomes to the next island in a
+ * ring. Islands exchange migrants through single-slot lock-free mailboxes, so no island ever waits
+ * for another; the first island to reach the goal stops the rest. Migration timing depends on
+ * scheduling, so island runs are not reproducible.
+ */
+public class GeneticSolver implements Solver {
+
+    // GA parameters, mirrors the GA controls in MazeFrame
+    public static class Config {
+        public int populationSize = 140;
+        public double mutationRate = 0.05;
+        public double goalBias = 0.80;
+        public int elitismCount = 14;
+        // Stop after this many generations; 0 keeps evolving until the goal is reached or cancelled
+        public int maxGenerations = 0;
+        public long seed = 42;
+        // Worker threads for evaluation and breeding, shared by all islands; 0 uses all available
+        // processors, and 1 evaluates and breeds on the solving thread (each island's own thread)
+        public int threads = 0;
+        // Sub-populations of populationSize each; 1 runs a single population
+        public int islands = 1;
+        // Generations between two migrations between neighbouring islands
+        public int migrationInterval = 25;
+    }
+
+    // Chunks per worker thread, for load balancing between genomes of different simulation length
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    // Moves between two simulation checkpoints of a genome
+    private static final int CHECKPOINT_INTERVAL = 16;
+
+    // Weight of the exact remaining cost to the goal in the fitness of routes that stop short
+    private static final int REMAINING_COST_FACTOR = 4;
+
+    private static final LongAdder GENERATIONS = Metrics.counter(Metrics.GENERATIONS);
+
+    private final Config config;
+
+    public GeneticSolver(Config config) {
+        this.config = config;
+    }
+
+    @Override
+    public String name() {
+        return "Genetic";
+    }
+
+    @Override
+    public SolveResult solve(MazeData data, SolveListener listener) {
+        int threads = config.threads > 0 ? config.threads : Runtime.getRuntime().availableProcessors();
+        // The workers' allocations count towards the solve's, see MeteredSolver
+        WorkerThreads workers = new WorkerThreads();
+        ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads, workers, null, false) : null;
+        try {
+            if (config.islands > 1) {
+                return runIslands(data, listener, pool, workers, threads * CHUNKS_PER_THREAD);
+            }
+            return new Evolution(data, listener, pool, threads * CHUNKS_PER_THREAD,
+                    new SplittableRandom(config.seed), 0, null).run();
+        } finally {
+            workers.charge();
+            if (pool != null) pool.shutdown();
+        }
+    }
+
+    // Evolve the islands side by side and keep the best result, preferring ones that reach the goal
+    private SolveResult runIslands(MazeData data, SolveListener listener, ForkJoinPool pool, WorkerThreads workers,
+            int chunkCount) {
+        long t0 = System.nanoTime();
+        int islands = config.islands;
+        Migration migration = new Migration(islands);
+        SplittableRandom root = new SplittableRandom(config.seed);
+        List<Callable<SolveResult>> tasks = new ArrayList<>(islands);
+        for (int i = 0; i < islands; i++) {
+            Evolution e = new Evolution(data, new IslandListener(listener, migration, i), pool, chunkCount,
+                    root.split(), i, migration);
+            tasks.add(e::run);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(islands, workers);
+        SolveResult best = null;
+        try {
+            for (Future<SolveResult> f : executor.invokeAll(tasks)) {
+                SolveResult r = f.get();
+                if (r.getPathLength() == 0) continue;
+                if (best == null || (r.isSolved() && !best.isSolved())
+                        || (r.isSolved() == best.isSolved() && r.getCost() < best.getCost())) {
+                    best = r;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            workers.charge();
+            executor.shutdown();
+        }
+        long t1 = System.nanoTime();
+        if (best == null) {
+            return new SolveResult(name(), false, SolveResult.NONE, SolveResult.NONE, SolveResult.NONE, null, data.M(), t1 - t0);
+        }
+        int[] path = new int[best.getPathLength()];
+        for (int i = 0; i < path.length; i++) path[i] = best.getPathX(i) * data.M() + best.getPathY(i);
+        return new SolveResult(name(), best.isSolved(), best.getCost(), SolveResult.NONE, SolveResult.NONE, path, data.M(), t1 - t0);
+    }
+
+    // Ring of single-slot mailboxes; a newer batch replaces one the receiver has not picked up yet
+    private static final class Migration {
+        private final AtomicReferenceArray<Individual[]> mailboxes;
+        // Set by the first island that reaches the goal
+        final AtomicBoolean done = new AtomicBoolean();
+
+        Migration(int islands) {
+            this.mailboxes = new AtomicReferenceArray<>(islands);
+        }
+
+        void send(int from, Individual[] migrants) {
+            mailboxes.set((from + 1) % mailboxes.length(), migrants);
+        }
+
+        Individual[] receive(int island) {
+            return mailboxes.getAndSet(island, null);
+        }
+    }
+
+    // Stops an island once another one is done; only the first island animates and reports progress
+    private static final class IslandListener implements SolveListener {
+        private final SolveListener target;
+        private final Migration migration;
+        private final int island;
+
+        IslandListener(SolveListener target, Migration migration, int island) {
+            this.target = target;
+            this.migration = migration;
+            this.island = island;
+        }
+
+        @Override
+        public void onCandidate(int[] path) {
+            if (island == 0) target.onCandidate(path);
+        }
+
+        @Override
+        public void onProgress(int cost, long elapsedNanos) {
+            if (island == 0) target.onProgress(cost, elapsedNanos);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return migration.done.get() || target.isCancelled();
+        }
+    }
+
+    // Position and cost of a simulation in progress; the path is only recorded when replaying the best
+    private static final class Trajectory {
+        int cost;
+        int end;
+        int[] path;
+        int length;
+    }
+
+    /**
+     * A genome with the seed of its goal-bias draws and checkpoints of its simulated trajectory. Children
+     * inherit the seed of their first parent, so a child's trajectory matches that parent's up to the
+     * first changed move and its simulation can resume from the parent's checkpoint there.
+     */
+    private static final class Individual {
+        final int[] genome;
+        final long seed;
+        // Position and cost before moves 0, K, 2K, ... as pairs; only the first `valid` are current
+        final int[] checkpoints;
+        int valid;
+        // Fitness of the full simulation, meaningful while evaluated is set
+        boolean evaluated;
+        int cost, end;
+
+        Individual(int[] genome, long seed) {
+            this.genome = genome;
+            this.seed = seed;
+            this.checkpoints = new int[2 * (genome.length / CHECKPOINT_INTERVAL + 1)];
+        }
+
+        // Independent copy for another island, which repairs genomes in place
+        Individual copy() {
+            Individual c = new Individual(genome.clone(), seed);
+            System.arraycopy(checkpoints, 0, c.checkpoints, 0, 2 * valid);
+            c.valid = valid;
+            c.evaluated = evaluated;
+            c.cost = cost;
+            c.end = end;
+            return c;
+        }
+
+        // Take over the parent's checkpoints that precede the first changed move
+        void inherit(Individual parent, int firstChanged) {
+            valid = Math.min(parent.valid, firstChanged / CHECKPOINT_INTERVAL + 1);
+            System.arraycopy(parent.checkpoints, 0, checkpoints, 0, 2 * valid);
+        }
+
+        // Drop checkpoints and fitness invalidated by a change at the given move
+        void changed(int firstChanged) {
+            valid = Math.min(valid, firstChanged / CHECKPOINT_INTERVAL + 1);
+            evaluated = false;
+        }
+    }
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    // SplitMix64 finaliser; draw k of a seed is mix(seed + k * gamma), so any move can be replayed on its own
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // Work on the index range [from, to) with the chunk's own random stream
+    private interface ChunkBody {
+        void run(int from, int to, SplittableRandom rnd);
+    }
+
+    // Splits a range of chunks in halves until single chunks remain
+    private static class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ChunkBody body;
+        private final int from, count, chunks;
+        private final SplittableRandom[] rngs;
+        private final int lo, hi;
+
+        ChunkTask(ChunkBody body, int from, int count, int chunks, SplittableRandom[] rngs, int lo, int hi) {
+            this.body = body;
+            this.from = from;
+            this.count = count;
+            this.chunks = chunks;
+            this.rngs = rngs;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                body.run(from + (int) ((long) count * lo / chunks), from + (int) ((long) count * hi / chunks), rngs[lo]);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new ChunkTask(body, from, count, chunks, rngs, lo, mid),
+                      new ChunkTask(body, from, count, chunks, rngs, mid, hi));
+        }
+    }
+
+    // State of one GA run; keeps the solver itself stateless and reusable
+    private class Evolution {
+        private final MazeData data;
+        private final MazeGrid grid;
+        private final int[] offsets;
+        private final int start, goal;
+        // Wall-aware cost to the exit; cells it cannot reach fall back to Manhattan distance
+        private final DistanceField toGoal;
+        private final SolveListener listener;
+        private final ForkJoinPool pool;
+        private final int chunkCount;
+        private final SplittableRandom rnd;
+        // Island index and channel when running as one of several islands, otherwise null
+        private final int island;
+        private final Migration migration;
+
+        Evolution(MazeData data, SolveListener listener, ForkJoinPool pool, int chunkCount,
+                  SplittableRandom rnd, int island, Migration migration) {
+            this.data = data;
+            this.grid = data.grid();
+            this.offsets = grid.offsets();
+            this.start = grid.start();
+            this.goal = grid.goal();
+            this.toGoal = DistanceField.toGoal(grid);
+            this.listener = listener;
+            this.pool = pool;
+            this.chunkCount = chunkCount;
+            this.rnd = rnd;
+            this.island = island;
+            this.migration = migration;
+        }
+
+        // Run body over [from, to) in chunks; random streams are split in chunk order on this thread
+        private void forEachChunk(int from, int to, ChunkBody body) {
+            int count = to - from;
+            if (count <= 0) return;
+            int chunks = Math.min(count, chunkCount);
+            SplittableRandom[] rngs = new SplittableRandom[chunks];
+            for (int c = 0; c < chunks; c++) rngs[c] = rnd.split();
+            if (pool != null) {
+                pool.invoke(new ChunkTask(body, from, count, chunks, rngs, 0, chunks));
+                return;
+            }
+            // Single thread: run the chunks in order here rather than let ForkJoin fall back to the common pool
+            for (int c = 0; c < chunks; c++) {
+                body.run(from + (int) ((long) count * c / chunks), from + (int) ((long) count * (c + 1) / chunks), rngs[c]);
+            }
+        }
+
+        SolveResult run() {
+            final int populationSize = Math.max(10, config.populationSize);
+            long t0 = System.nanoTime();
+            int estSteps = estimateShortestSteps();
+            int area = data.N() * data.M();
+            double scale = area >= 2500 ? 3.0 : 1.5; // bigger mazes get longer genomes
+            int upperCap = Math.max(300, area / 2);  // allow larger cap for big mazes
+            final int genomeLength = Math.max(
+                Math.min((int)Math.round(estSteps * scale), upperCap),
+                data.N() + data.M()
+            );
+
+            // Initialize population (mix random and goal-directed seeded genomes)
+            final Individual[] initial = new Individual[populationSize];
+            final int seeded = Math.max(2, populationSize / 10);
+            forEachChunk(0, populationSize, (from, to, r) -> {
+                for (int i = from; i < to; i++) {
+                    int[] g;
+                    if (i < seeded) {
+                        g = generateDirectedGenome(genomeLength, r);
+                    } else {
+                        g = new int[genomeLength];
+                        for (int j = 0; j < genomeLength; j++) g[j] = r.nextInt(4);
+                    }
+                    initial[i] = new Individual(g, r.nextLong());
+                }
+            });
+            List<Individual> pop = new ArrayList<>(Arrays.asList(initial));
+
+            final long[] order = new long[populationSize];
+            final Trajectory best = new Trajectory();
+            best.path = new int[genomeLength + 1];
+
+            int bestCost = Integer.MAX_VALUE; int[] bestPath=null; boolean bestReached=false;
+            int gen = 0;
+            while (!listener.isCancelled() && !bestReached
+                    && (config.maxGenerations <= 0 || gen < config.maxGenerations)) {
+                GenerationEvent genEvent = new GenerationEvent();
+                genEvent.begin();
+                // Evaluate; elites kept unchanged are not simulated again, children resume from checkpoints
+                final List<Individual> current = pop;
+                forEachChunk(0, populationSize, (from, to, r) -> {
+                    Trajectory t = new Trajectory();
+                    for (int i = from; i < to; i++) {
+                        Individual ind = current.get(i);
+                        if (!ind.evaluated) evaluate(ind, t);
+                    }
+                });
+                // Sort by reached then cost, ties by index: (unreached << 62) | (cost << 24) | index
+                for (int i = 0; i < populationSize; i++) {
+                    Individual ind = current.get(i);
+                    order[i] = (ind.end == goal ? 0L : 1L << 62) | ((long) ind.cost << 24) | i;
+                }
+                Arrays.sort(order);
+                // Track best; only the generation's best trajectory is ever materialised,
+                // replayed before elite repair can touch its genome
+                Individual top = current.get(rank(order, 0));
+                boolean reached = top.end == goal;
+                simulate(top.genome, top.seed, best);
+                if (top.cost < bestCost || reached) {
+                    bestCost=top.cost; bestPath=toCells(best); bestReached = reached;
+                }
+                // Let observers animate the current best candidate
+                if (!listener.isCancelled()) {
+                    listener.onCandidate(toCells(best));
+                }
+                if (bestReached) {
+                    endGeneration(genEvent, gen, populationSize, bestCost, true);
+                    if (migration != null) migration.done.set(true);
+                    break; // stop once a path reaches the goal
+                }
+                // Elitism: carry over the best genomes
+                List<Individual> next = new ArrayList<>(populationSize);
+                final int eliteCount = Math.max(1, Math.min(config.elitismCount, populationSize-1));
+                Trajectory scratch = new Trajectory();
+                for (int i=0;i<eliteCount;i++) {
+                    Individual elite = current.get(rank(order, i));
+                    // Small greedy repair to help elites approach the goal if not reached
+                    greedyRepair(elite, rnd, scratch);
+                    next.add(elite);
+                }
+                if (migration != null) {
+                    // Send copies of the best half of the elites on, and take in what the previous island sent
+                    if (gen > 0 && gen % Math.max(1, config.migrationInterval) == 0) {
+                        Individual[] out = new Individual[Math.max(1, eliteCount / 2)];
+                        for (int i = 0; i < out.length; i++) out[i] = next.get(i).copy();
+                        migration.send(island, out);
+                    }
+                    Individual[] in = migration.receive(island);
+                    if (in != null) {
+                        for (Individual m : in) if (next.size() < populationSize) next.add(m);
+                    }
+                }
+                // Crossover + mutation to refill, parents drawn from the top of the ranking
+                final int parentPool = Math.min(populationSize, Math.max(eliteCount, 4));
+                final Individual[] children = new Individual[populationSize - next.size()];
+                forEachChunk(0, children.length, (from, to, r) -> {
+                    Trajectory t = new Trajectory();
+                    for (int i = from; i < to; i++) {
+                        Individual p1 = current.get(rank(order, r.nextInt(parentPool)));
+                        Individual p2 = current.get(rank(order, r.nextInt(parentPool)));
+                        int[] g = new int[genomeLength];
+                        int cut = 1 + r.nextInt(genomeLength-1);
+                        System.arraycopy(p1.genome, 0, g, 0, cut);
+                        System.arraycopy(p2.genome, cut, g, cut, genomeLength-cut);
+                        // mutation, remembering the first move that no longer matches p1
+                        int firstChanged = cut;
+                        for (int j=0;j<genomeLength;j++) {
+                            if (r.nextDouble() < config.mutationRate) {
+                                g[j] = r.nextInt(4);
+                                if (j < firstChanged) firstChanged = j;
+                            }
+                        }
+                        Individual child = new Individual(g, p1.seed);
+                        child.inherit(p1, firstChanged);
+                        // Occasionally bias a segment toward goal
+                        if (r.nextDouble() < 0.15) {
+                            directedSegmentMutation(child, r, t);
+                        }
+                        // If child still looks poor (heuristic), apply greedy repair
+                        if (r.nextDouble() < 0.2) {
+                            greedyRepair(child, r, t);
+                        }
+                        children[i] = child;
+                    }
+                });
+                next.addAll(Arrays.asList(children));
+                pop = next;
+                // Occasionally report cost-only progress
+                if (gen % 10 == 0) {
+                    listener.onProgress(bestCost, System.nanoTime()-t0);
+                }
+                endGeneration(genEvent, gen, populationSize, bestCost, false);
+                gen++;
+            }
+            long t1 = System.nanoTime();
+            if (bestPath == null) {
+                return new SolveResult(name(), false, SolveResult.NONE, SolveResult.NONE, SolveResult.NONE, null, data.M(), t1 - t0);
+            }
+            return new SolveResult(name(), bestReached, bestCost, SolveResult.NONE, SolveResult.NONE, bestPath, data.M(), t1 - t0);
+        }
+
+        // Count the generation and commit its Flight Recorder event
+        private void endGeneration(GenerationEvent event, int gen, int population, int bestCost, boolean reached) {
+            GENERATIONS.increment();
+            event.end();
+            if (!event.shouldCommit()) return;
+            event.island = island;
+            event.generation = gen;
+            event.population = population;
+            event.bestCost = bestCost;
+            event.reached = reached;
+            event.commit();
+        }
+
+        // Population index of the individual at the given rank
+        private int rank(long[] order, int i) {
+            return (int) (order[i] & 0xFFFFFF);
+        }
+
+        // Direction actually taken at move i from p: the gene, or a goal-directed override
+        private int move(int[] genome, long seed, int i, int p) {
+            long k = seed + (2L * i + 1) * GOLDEN_GAMMA;
+            if ((mix(k) >>> 11) * 0x1.0p-53 >= config.goalBias) return genome[i] % 4;
+            int m = directedMove(p);
+            return m != -1 ? m : anyOpenMove(p, (int) (mix(k + GOLDEN_GAMMA) >>> 33));
+        }
+
+        /**
+         * Advance the trajectory of ind from its last valid checkpoint at or before move until, leaving
+         * position and cost in t. Checkpoints passed on the way are recorded; stops early at the goal.
+         */
+        private void resume(Individual ind, int until, Trajectory t) {
+            int[] genome = ind.genome;
+            int[] ck = ind.checkpoints;
+            int c = Math.min(ind.valid - 1, until / CHECKPOINT_INTERVAL);
+            int p, cost, i;
+            if (c < 0) {
+                p = start; cost = 0; i = 0;
+            } else {
+                p = ck[2 * c]; cost = ck[2 * c + 1]; i = c * CHECKPOINT_INTERVAL;
+            }
+            for (; i < until && p != goal; i++) {
+                if (i % CHECKPOINT_INTERVAL == 0 && i / CHECKPOINT_INTERVAL == ind.valid) {
+                    ck[2 * ind.valid] = p;
+                    ck[2 * ind.valid + 1] = cost;
+                    ind.valid++;
+                }
+                int np = p + offsets[move(genome, ind.seed, i, p)];
+                if (grid.cost(np) == MazeGrid.WALL) {
+                    cost += 50; // heavier penalty for invalid move
+                    continue;
+                }
+                p = np;
+                cost += grid.cost(p);
+            }
+            t.cost = cost;
+            t.end = p;
+        }
+
+        // Full fitness of ind, cached on it until its genome changes
+        private void evaluate(Individual ind, Trajectory t) {
+            resume(ind, ind.genome.length, t);
+            int cost = t.cost;
+            if (t.end != goal) {
+                // Penalize non-finished routes by what is left to the goal
+                int rest = toGoal.to(grid, t.end);
+                if (rest != DistanceField.UNREACHABLE) {
+                    cost += rest * REMAINING_COST_FACTOR;
+                } else {
+                    cost += grid.manhattan(t.end, goal) * 120; // stronger steering toward goal
+                }
+            }
+            ind.cost = cost;
+            ind.end = t.end;
+            ind.evaluated = true;
+        }
+
+        // Simulate a genome from the entrance, recording the visited cells in t.path
+        private void simulate(int[] genome, long seed, Trajectory t) {
+            int p = start;
+            int length = 0;
+            t.path[length++] = p;
+            for (int i=0;i<genome.length && p != goal;i++) {
+                int np = p + offsets[move(genome, seed, i, p)];
+                if (grid.cost(np) == MazeGrid.WALL) continue;
+                p = np;
+                t.path[length++] = p;
+            }
+            t.end = p;
+            t.length = length;
+        }
+
+        private int[] toCells(Trajectory t) {
+            int[] out = new int[t.length];
+            for (int i = 0; i < out.length; i++) out[i] = grid.toCell(t.path[i]);
+            return out;
+        }
+
+        // Move that gets closer to the goal without hitting a wall, or -1 when there is none
+        private int directedMove(int p) {
+            boolean exact = toGoal.to(grid, p) != DistanceField.UNREACHABLE;
+            int bestMove = -1;
+            int bestDist = exact ? toGoal.to(grid, p) : grid.manhattan(p, goal);
+            for (int m = 0; m < 4; m++) {
+                int np = p + offsets[m];
+                if (grid.cost(np) == MazeGrid.WALL) continue;
+                int dist = exact ? toGoal.to(grid, np) : grid.manhattan(np, goal);
+                if (dist < bestDist) { bestDist = dist; bestMove = m; }
+            }
+            return bestMove;
+        }
+
+        // Any valid move picked by the non-negative random r; any move at all when boxed in
+        private int anyOpenMove(int p, int r) {
+            int open = 0, openCount = 0;
+            for (int m = 0; m < 4; m++) {
+                if (grid.cost(p + offsets[m]) == MazeGrid.WALL) continue;
+                open |= 1 << m;
+                openCount++;
+            }
+            if (openCount == 0) return r & 3;
+            int k = r % openCount;
+            for (int m = 0; ; m++) {
+                if ((open & (1 << m)) != 0 && k-- == 0) return m;
+            }
+        }
+
+        // Choose a move that gets closer to the goal and avoids walls when possible
+        private int chooseDirectedMove(int p, SplittableRandom rnd) {
+            int m = directedMove(p);
+            // fallback: prefer any valid move
+            return m != -1 ? m : anyOpenMove(p, rnd.nextInt(Integer.MAX_VALUE));
+        }
+
+        // Replace a random segment with goal-directed steps
+        private void directedSegmentMutation(Individual ind, SplittableRandom rnd, Trajectory t) {
+            int[] g = ind.genome;
+            int segLen = Math.max(5, Math.min(20, g.length / 6));
+            int startIdx = rnd.nextInt(Math.max(1, g.length - segLen));
+            // Replace segment with goal-directed steps based on current simulated position
+            resume(ind, startIdx, t);
+            int p = t.end;
+            for (int i = startIdx; i < Math.min(g.length, startIdx + segLen); i++) {
+                int mv = chooseDirectedMove(p, rnd);
+                g[i] = mv;
+                int np = p + offsets[mv];
+                if (grid.cost(np) == MazeGrid.WALL) break;
+                p = np;
+            }
+            ind.changed(startIdx);
+        }
+
+        // Append a small greedy tail to help elites approach goal
+        private void greedyRepair(Individual ind, SplittableRandom rnd, Trajectory t) {
+            if (!ind.evaluated) evaluate(ind, t);
+            if (ind.end == goal) return;
+            int[] g = ind.genome;
+            int genomeLength = g.length;
+            int p = ind.end;
+            // Replace last few steps with goal-directed steps
+            int tail = Math.min(20, genomeLength/4);
+            for (int i = genomeLength - tail; i < genomeLength; i++) {
+                int mv = chooseDirectedMove(p, rnd);
+                g[i] = mv;
+                int np = p + offsets[mv];
+                if (grid.cost(np) == MazeGrid.WALL) break;
+                p = np;
+                if (p == goal) break;
+            }
+            ind.changed(genomeLength - tail);
+        }
+
+        // Estimate shortest steps from entrance to exit using unweighted BFS (ignores weights)
+        private int estimateShortestSteps() {
+            SolveResult bfs = new BfsSolver().solve(data);
+            if (bfs.isSolved()) return bfs.getSteps();
+            // fallback to Manhattan distance + padding if unreachable by BFS
+            int md = Math.abs(data.getEntranceX()-data.getExitX()) + Math.abs(data.getEntranceY()-data.getExitY());
+            return md + 20;
+        }
+
+        // Generate a genome that tends to move toward the goal while avoiding walls
+        private int[] generateDirectedGenome(int length, SplittableRandom r) {
+            int[] g = new int[length];
+            int p = start;
+            for (int i = 0; i < length; i++) {
+                int mv;
+                // Mostly choose directed moves; occasional random to escape dead-ends
+                if (r.nextDouble() < 0.85) {
+                    mv = chooseDirectedMove(p, r);
+                } else {
+                    mv = r.nextInt(4);
+                }
+                g[i] = mv;
+                int np = p + offsets[mv];
+                if (grid.cost(np) == MazeGrid.WALL) continue;
+                p = np;
+                if (p == goal) break;
+            }
+            return g;
+        }
+    }
+}
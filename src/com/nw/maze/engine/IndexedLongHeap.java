@@ -0,0 +1,112 @@
+package com.nw.maze.engine;
+
+/**
+ * Binary min-heap over int items with long keys that can move either way, for searches whose keys are
+ * lexicographic pairs packed into a long. Like {@link IndexedMinHeap} each item is queued at most once,
+ * but an item's key may also rise and an item may be removed from the middle.
+ */
+final class IndexedLongHeap {
+
+    private final int[] heap;  // heap slot -> item
+    private final int[] slot;  // item -> heap slot + 1, 0 when not queued
+    private final long[] key;  // item -> current key
+    private int size;
+    // Operations since the counters were last taken; key changes in either direction count as decrease-keys
+    long pushes, decreaseKeys, pops;
+
+    IndexedLongHeap(int capacity) {
+        heap = new int[capacity];
+        slot = new int[capacity];
+        key = new long[capacity];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean contains(int item) {
+        return slot[item] != 0;
+    }
+
+    long peekKey() {
+        return key[heap[0]];
+    }
+
+    // Queue the item with the key, or move it there if it is already queued
+    void set(int item, long k) {
+        int s = slot[item];
+        if (s == 0) {
+            heap[size] = item;
+            slot[item] = ++size;
+            key[item] = k;
+            siftUp(size - 1);
+            pushes++;
+            return;
+        }
+        long old = key[item];
+        if (k == old) return;
+        key[item] = k;
+        if (k < old) siftUp(s - 1); else siftDown(s - 1);
+        decreaseKeys++;
+    }
+
+    void remove(int item) {
+        int s = slot[item];
+        if (s == 0) return;
+        slot[item] = 0;
+        int last = heap[--size];
+        if (s - 1 == size) return;
+        heap[s - 1] = last;
+        slot[last] = s;
+        siftUp(s - 1);
+        siftDown(slot[last] - 1);
+    }
+
+    int poll() {
+        int top = heap[0];
+        remove(top);
+        pops++;
+        return top;
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++) slot[heap[i]] = 0;
+        size = 0;
+    }
+
+    private void siftUp(int i) {
+        int item = heap[i];
+        long k = key[item];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int p = heap[parent];
+            if (key[p] <= k) break;
+            heap[i] = p;
+            slot[p] = i + 1;
+            i = parent;
+        }
+        heap[i] = item;
+        slot[item] = i + 1;
+    }
+
+    private void siftDown(int i) {
+        int item = heap[i];
+        long k = key[item];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int c = heap[child];
+            int right = child + 1;
+            if (right < size && key[heap[right]] < key[c]) {
+                child = right;
+                c = heap[child];
+            }
+            if (k <= key[c]) break;
+            heap[i] = c;
+            slot[c] = i + 1;
+            i = child;
+        }
+        heap[i] = item;
+        slot[item] = i + 1;
+    }
+}
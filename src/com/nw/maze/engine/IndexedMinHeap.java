@@ -0,0 +1,123 @@
+package com.nw.maze.engine;
+
+/**
+ * Binary min-heap over int items (flat cell indices) with int keys and decrease-key.
+ * Each item is in the heap at most once, and no objects are allocated per push.
+ */
+public final class IndexedMinHeap {
+
+    private final int[] heap;  // heap slot -> item
+    private final int[] slot;  // item -> heap slot + 1, 0 when not queued
+    private final int[] key;   // item -> current key
+    private int size;
+    // Operations since the last clear, read by SearchContext when a search ends
+    long pushes, decreaseKeys, pops;
+
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        slot = new int[capacity];
+        key = new int[capacity];
+    }
+
+    public int capacity() {
+        return heap.length;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int item) {
+        return slot[item] != 0;
+    }
+
+    public int keyOf(int item) {
+        return key[item];
+    }
+
+    // Queue the item, or lower its key if it is queued with a larger one; returns false when nothing changed
+    public boolean offer(int item, int k) {
+        int s = slot[item];
+        if (s == 0) {
+            heap[size] = item;
+            slot[item] = ++size;
+            key[item] = k;
+            siftUp(size - 1);
+            pushes++;
+            return true;
+        }
+        if (k >= key[item]) return false;
+        key[item] = k;
+        siftUp(s - 1);
+        decreaseKeys++;
+        return true;
+    }
+
+    public int peek() {
+        return heap[0];
+    }
+
+    public int peekKey() {
+        return key[heap[0]];
+    }
+
+    public int poll() {
+        int top = heap[0];
+        slot[top] = 0;
+        pops++;
+        int last = heap[--size];
+        if (size > 0) {
+            heap[0] = last;
+            slot[last] = 1;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    // O(size): only the items still queued need their slot cleared
+    public void clear() {
+        for (int i = 0; i < size; i++) slot[heap[i]] = 0;
+        size = 0;
+        pushes = decreaseKeys = pops = 0;
+    }
+
+    private void siftUp(int i) {
+        int item = heap[i];
+        int k = key[item];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int p = heap[parent];
+            if (key[p] <= k) break;
+            heap[i] = p;
+            slot[p] = i + 1;
+            i = parent;
+        }
+        heap[i] = item;
+        slot[item] = i + 1;
+    }
+
+    private void siftDown(int i) {
+        int item = heap[i];
+        int k = key[item];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int c = heap[child];
+            int right = child + 1;
+            if (right < size && key[heap[right]] < key[c]) {
+                child = right;
+                c = heap[child];
+            }
+            if (k <= key[c]) break;
+            heap[i] = c;
+            slot[c] = i + 1;
+            i = child;
+        }
+        heap[i] = item;
+        slot[item] = i + 1;
+    }
+}
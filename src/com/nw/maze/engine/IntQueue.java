@@ -0,0 +1,52 @@
+package com.nw.maze.engine;
+
+/**
+ * FIFO ring buffer of ints; grows by doubling when full, so the steady state allocates nothing.
+ */
+public final class IntQueue {
+
+    private int[] buf;
+    private int mask;
+    private int head, tail;
+    // Values added since the last clear; the ones polled are pushes - size()
+    long pushes;
+
+    public IntQueue(int capacity) {
+        int cap = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        buf = new int[cap];
+        mask = cap - 1;
+    }
+
+    public boolean isEmpty() {
+        return head == tail;
+    }
+
+    public int size() {
+        return tail - head;
+    }
+
+    public void add(int value) {
+        if (tail - head == buf.length) grow();
+        buf[tail++ & mask] = value;
+        pushes++;
+    }
+
+    public int poll() {
+        return buf[head++ & mask];
+    }
+
+    public void clear() {
+        head = tail = 0;
+        pushes = 0;
+    }
+
+    private void grow() {
+        int[] next = new int[buf.length << 1];
+        int n = tail - head;
+        for (int i = 0; i < n; i++) next[i] = buf[(head + i) & mask];
+        buf = next;
+        mask = next.length - 1;
+        head = 0;
+        tail = n;
+    }
+}
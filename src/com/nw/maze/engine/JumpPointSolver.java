@@ -0,0 +1,126 @@
+package com.nw.maze.engine;
+
+import com.nw.maze.MazeData;
+import com.nw.maze.MazeGrid;
+
+/**
+ * Jump Point Search for 4-connected unit-cost grids; like BFS it ignores weights and reports steps.
+ * Canonical paths may turn horizontal anywhere after a vertical move, but turn vertical after a
+ * horizontal move only where the cell diagonally behind is blocked (the turn could not have been
+ * taken one cell earlier). Vertical scans therefore probe horizontally at every cell, while
+ * horizontal scans run down straight corridors until the goal, a wall or such a forced turn.
+ * Jump points are searched with A* on Manhattan distance, which is exact between them.
+ */
+public class JumpPointSolver implements Solver {
+
+    private static final int UP = 0, RIGHT = 1, DOWN = 2, LEFT = 3;
+
+    @Override
+    public String name() {
+        return "JPS";
+    }
+
+    @Override
+    public SolveResult solve(MazeData data, SolveListener listener) {
+        long t0 = System.nanoTime();
+        MazeGrid grid = data.grid();
+        SearchContext ctx = SearchContext.acquire(grid.size());
+        try {
+            int[] offsets = grid.offsets();
+            ParentDirections arrival = ctx.parent();
+            int[] link = ctx.links();
+            IndexedMinHeap open = ctx.heap();
+            int start = grid.start();
+            int goal = grid.goal();
+            if (start != -1 && goal != -1) {
+                ctx.setDist(start, 0);
+                link[start] = -1;
+                open.offer(start, grid.manhattan(start, goal));
+            }
+
+            int visitedCount = 0;
+            boolean solved = false;
+            while (!open.isEmpty() && !listener.isCancelled()) {
+                int cur = open.poll();
+                ctx.close(cur);
+                visitedCount++;
+                listener.onVisit(grid.row(cur), grid.col(cur));
+                if (cur == goal) { solved = true; break; }
+                int base = ctx.dist(cur);
+                int from = cur == start ? -1 : arrival.get(cur);
+                for (int dir = 0; dir < 4; dir++) {
+                    if (!isSuccessor(grid, offsets, cur, from, dir)) continue;
+                    int jp = jump(grid, offsets, cur, dir, goal);
+                    if (jp == -1 || ctx.isClosed(jp)) continue;
+                    int newCost = base + grid.manhattan(cur, jp);
+                    if (newCost < ctx.dist(jp)) {
+                        ctx.setDist(jp, newCost);
+                        link[jp] = cur;
+                        arrival.set(jp, dir);
+                        open.offer(jp, newCost + grid.manhattan(jp, goal));
+                        listener.onRelax(grid.row(jp), grid.col(jp));
+                    }
+                }
+            }
+
+            long t1 = System.nanoTime();
+            if (!solved) {
+                return new SolveResult(name(), false, SolveResult.NONE, SolveResult.NONE, visitedCount, null, grid.cols(), t1 - t0);
+            }
+            int[] path = expandPath(grid, arrival, link, ctx.dist(goal), goal);
+            return new SolveResult(name(), true, SolveResult.NONE, path.length, visitedCount, path, grid.cols(), t1 - t0);
+        } finally {
+            ctx.release();
+        }
+    }
+
+    private static boolean isHorizontal(int dir) {
+        return dir == RIGHT || dir == LEFT;
+    }
+
+    // Pruned successor directions of a jump point reached by moving 'from' (-1 for the start)
+    private static boolean isSuccessor(MazeGrid grid, int[] offsets, int cur, int from, int dir) {
+        if (from == -1) return true;
+        if (dir == ((from + 2) & 3)) return false;
+        if (!isHorizontal(from) || dir == from) return true;
+        return isForced(grid, offsets, cur, from, dir);
+    }
+
+    // Turning vertical at cell c after moving horizontally is forced when the cell diagonally behind is blocked
+    private static boolean isForced(MazeGrid grid, int[] offsets, int c, int horizontal, int vertical) {
+        return grid.cost(c + offsets[vertical]) != MazeGrid.WALL
+            && grid.cost(c - offsets[horizontal] + offsets[vertical]) == MazeGrid.WALL;
+    }
+
+    // Scan from c in direction dir; returns the next jump point or -1 at a wall
+    private static int jump(MazeGrid grid, int[] offsets, int c, int dir, int goal) {
+        int step = offsets[dir];
+        if (isHorizontal(dir)) {
+            while (true) {
+                c += step;
+                if (grid.cost(c) == MazeGrid.WALL) return -1;
+                if (c == goal) return c;
+                if (isForced(grid, offsets, c, dir, UP) || isForced(grid, offsets, c, dir, DOWN)) return c;
+            }
+        }
+        while (true) {
+            c += step;
+            if (grid.cost(c) == MazeGrid.WALL) return -1;
+            if (c == goal) return c;
+            if (jump(grid, offsets, c, RIGHT, goal) != -1 || jump(grid, offsets, c, LEFT, goal) != -1) return c;
+        }
+    }
+
+    // Interpolate the straight segments between jump points; returns the route start to goal
+    private static int[] expandPath(MazeGrid grid, ParentDirections arrival, int[] link, int steps, int goal) {
+        int[] path = new int[steps + 1];
+        int i = path.length;
+        int c = goal;
+        for (int jp = goal; link[jp] != -1; jp = link[jp]) {
+            int back = grid.offset(arrival.get(jp));
+            for (; c != link[jp]; c -= back) path[--i] = grid.toCell(c);
+        }
+        path[--i] = grid.toCell(c);
+        return path;
+    }
+}
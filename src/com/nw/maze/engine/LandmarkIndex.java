@@ -0,0 +1,249 @@
+package com.nw.maze.engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.nw.maze.MazeData;
+import com.nw.maze.MazeGrid;
+
+/**
+ * ALT preprocessing (A*, Landmarks, Triangle inequality): exact costs from a few landmark cells to every
+ * cell, picked by farthest-point selection so they sit at the far ends of the maze. For any cell v and
+ * target t the triangle inequality gives the lower bounds {@code d(L, t) - d(L, v)} and
+ * {@code d(v, L) - d(t, L)}, where {@code d(v, L) = d(L, v) - cost(v) + cost(L)} as in
+ * {@link DistanceField}. Their maximum over all landmarks is an admissible, consistent A* heuristic
+ * for every start and exit of the maze.
+ * <p>
+ * Distances are stored as {@code char[]} when they fit in 16 bits. The index is cached per root grid
+ * until a weight edit bumps the grid's {@link MazeGrid#version()}. It is only written to disk on
+ * request, by {@link #save}, as {@code <maze file>.alt} next to the maze; {@link #of} picks such a
+ * file up and ignores it once its cell fingerprint no longer matches the maze.
+ */
+public final class LandmarkIndex {
+
+    public static final String EXTENSION = ".alt";
+    public static final int DEFAULT_LANDMARKS = 8;
+
+    private static final int MAGIC = 0x414C5431; // "ALT1"
+    private static final char CHAR_UNREACHABLE = 0xFFFF;
+
+    private static final Map<MazeGrid, LandmarkIndex> CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+
+    // Padded grid size the distances cover, and the grid version they were computed at
+    private final int size;
+    private final int version;
+    private final int[] landmarks;
+    // One array per landmark: char[] when every finite distance fits in 16 bits, int[] otherwise
+    private final char[][] narrow;
+    private final int[][] wide;
+
+    private LandmarkIndex(int size, int version, int[] landmarks, char[][] narrow, int[][] wide) {
+        this.size = size;
+        this.version = version;
+        this.landmarks = landmarks;
+        this.narrow = narrow;
+        this.wide = wide;
+    }
+
+    // Index of the maze: cached, loaded from a saved file next to the maze, or built in memory. Never writes
+    public static LandmarkIndex of(MazeData data) {
+        MazeGrid grid = data.grid();
+        LandmarkIndex index = CACHE.get(grid.root());
+        if (index != null && index.version == grid.version()) return index;
+        index = null;
+        Path file = indexFile(data);
+        if (file != null && Files.isRegularFile(file)) {
+            try {
+                index = read(file, grid, fingerprint(grid));
+            } catch (IOException | RuntimeException e) {
+                index = null; // unreadable index, rebuild it
+            }
+        }
+        if (index == null) index = build(grid, DEFAULT_LANDMARKS);
+        synchronized (CACHE) {
+            LandmarkIndex raced = CACHE.get(grid.root());
+            if (raced != null && raced.version == index.version) return raced;
+            CACHE.put(grid.root(), index);
+        }
+        return index;
+    }
+
+    // Write the maze's index next to its file for later runs; returns the file, or null for a maze
+    // that was not loaded from one
+    public static Path save(MazeData data) throws IOException {
+        Path file = indexFile(data);
+        if (file == null) return null;
+        of(data).write(file, fingerprint(data.grid()));
+        return file;
+    }
+
+    private static Path indexFile(MazeData data) {
+        return data.getFileName() != null ? Paths.get(data.getFileName() + EXTENSION) : null;
+    }
+
+    // Farthest-point selection: each landmark is the open cell farthest from all landmarks picked so far
+    public static LandmarkIndex build(MazeGrid grid, int count) {
+        int size = grid.size();
+        int version = grid.version();
+        int seed = grid.start() != -1 && grid.isOpen(grid.start()) ? grid.start() : -1;
+        for (int i = 0; seed == -1 && i < size; i++) {
+            if (grid.isOpen(i)) seed = i;
+        }
+        int[] landmarks = new int[0];
+        int[][] dists = new int[0][];
+        if (seed != -1) {
+            landmarks = new int[count];
+            dists = new int[count][];
+            // Distance to the nearest chosen landmark; starts out as the distance from the seed cell
+            int[] nearest = DistanceField.from(grid, seed).distances();
+            int k = 0;
+            while (k < count) {
+                int far = -1;
+                for (int i = 0; i < size; i++) {
+                    int d = nearest[i];
+                    if (d != DistanceField.UNREACHABLE && d > 0 && (far == -1 || d > nearest[far])) far = i;
+                }
+                if (far == -1) break; // fewer reachable cells than landmarks
+                int[] dist = DistanceField.from(grid, far).distances();
+                landmarks[k] = far;
+                dists[k++] = dist;
+                for (int i = 0; i < size; i++) nearest[i] = Math.min(nearest[i], dist[i]);
+            }
+            if (k < count) {
+                landmarks = Arrays.copyOf(landmarks, k);
+                dists = Arrays.copyOf(dists, k);
+            }
+        }
+        char[][] narrow = new char[landmarks.length][];
+        int[][] wide = new int[landmarks.length][];
+        for (int l = 0; l < landmarks.length; l++) {
+            int[] dist = dists[l];
+            if (fitsNarrow(dist)) {
+                char[] c = new char[size];
+                for (int i = 0; i < size; i++) c[i] = dist[i] == DistanceField.UNREACHABLE ? CHAR_UNREACHABLE : (char) dist[i];
+                narrow[l] = c;
+            } else {
+                wide[l] = dist;
+            }
+        }
+        return new LandmarkIndex(size, version, landmarks, narrow, wide);
+    }
+
+    private static boolean fitsNarrow(int[] dist) {
+        for (int d : dist) {
+            if (d != DistanceField.UNREACHABLE && d >= CHAR_UNREACHABLE) return false;
+        }
+        return true;
+    }
+
+    public int landmarkCount() {
+        return landmarks.length;
+    }
+
+    public int landmark(int l) {
+        return landmarks[l];
+    }
+
+    // Cost from landmark l to index, or UNREACHABLE
+    public int distance(int l, int index) {
+        if (narrow[l] != null) {
+            char c = narrow[l][index];
+            return c == CHAR_UNREACHABLE ? DistanceField.UNREACHABLE : c;
+        }
+        return wide[l][index];
+    }
+
+    /**
+     * Lower bound on the cost from index to target: the best triangle bound over all landmarks, at
+     * least the Manhattan step count. UNREACHABLE when some landmark reaches only one of the two cells.
+     */
+    public int lowerBound(MazeGrid grid, int index, int target) {
+        int best = grid.manhattan(index, target);
+        for (int l = 0; l < landmarks.length; l++) {
+            int lv = distance(l, index);
+            int lt = distance(l, target);
+            if (lv == DistanceField.UNREACHABLE || lt == DistanceField.UNREACHABLE) {
+                if (lv != lt) return DistanceField.UNREACHABLE;
+                continue;
+            }
+            // d(v, t) >= d(L, t) - d(L, v) and d(v, t) >= d(v, L) - d(t, L)
+            int forward = lt - lv;
+            int backward = (lv - grid.cost(index)) - (lt - grid.cost(target));
+            if (forward > best) best = forward;
+            if (backward > best) best = backward;
+        }
+        return best;
+    }
+
+    // Cheap change detector for the cell costs an index file was built from
+    private static long fingerprint(MazeGrid grid) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < grid.size(); i++) {
+            h ^= grid.cost(i);
+            h *= 0x100000001B3L;
+        }
+        return h ^ grid.size();
+    }
+
+    private static LandmarkIndex read(Path file, MazeGrid grid, long fingerprint) throws IOException {
+        int version = grid.version();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer b = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            if (b.getInt() != MAGIC || b.getLong() != fingerprint || b.getInt() != grid.size()) return null;
+            int count = b.getInt();
+            int size = grid.size();
+            int[] landmarks = new int[count];
+            char[][] narrow = new char[count][];
+            int[][] wide = new int[count][];
+            for (int l = 0; l < count; l++) {
+                landmarks[l] = b.getInt();
+                if (b.get() == 2) {
+                    narrow[l] = new char[size];
+                    b.asCharBuffer().get(narrow[l]);
+                    b.position(b.position() + 2 * size);
+                } else {
+                    wide[l] = new int[size];
+                    b.asIntBuffer().get(wide[l]);
+                    b.position(b.position() + 4 * size);
+                }
+            }
+            return new LandmarkIndex(size, version, landmarks, narrow, wide);
+        }
+    }
+
+    // Header: magic, cell fingerprint, padded grid size, landmark count; then per landmark its cell,
+    // the width in bytes (2 or 4) and the distances
+    private void write(Path file, long fingerprint) throws IOException {
+        long bytes = 20;
+        for (int l = 0; l < landmarks.length; l++) bytes += 5 + (long) size * (narrow[l] != null ? 2 : 4);
+        if (bytes > Integer.MAX_VALUE - 8) throw new IOException("Landmark index too large for " + file);
+        ByteBuffer b = ByteBuffer.allocate((int) bytes);
+        b.putInt(MAGIC).putLong(fingerprint).putInt(size).putInt(landmarks.length);
+        for (int l = 0; l < landmarks.length; l++) {
+            b.putInt(landmarks[l]);
+            if (narrow[l] != null) {
+                b.put((byte) 2);
+                b.asCharBuffer().put(narrow[l]);
+                b.position(b.position() + 2 * size);
+            } else {
+                b.put((byte) 4);
+                b.asIntBuffer().put(wide[l]);
+                b.position(b.position() + 4 * size);
+            }
+        }
+        b.flip();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (b.hasRemaining()) ch.write(b);
+        }
+    }
+}
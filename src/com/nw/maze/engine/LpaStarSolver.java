@@ -0,0 +1,180 @@
+package com.nw.maze.engine;
+
+import java.util.Arrays;
+
+import com.nw.maze.MazeData;
+import com.nw.maze.MazeGrid;
+
+/**
+ * Lifelong Planning A* (Koenig and Likhachev): A* that keeps its search tree between solves and, after
+ * cells change cost, open or close, repairs only the part of the tree the change reaches. Every cell has
+ * its best known cost g and a one-step lookahead rhs, the cheapest neighbour's g plus the cell's own
+ * cost; cells where the two differ are queued by {@code (min(g, rhs) + h, min(g, rhs))} and expanded
+ * until the goal is consistent and nothing cheaper is left.
+ * <p>
+ * Editors report each changed cell with {@link #cellChanged}. A cell's cost is the cost of every move
+ * into it, so a changed cell only changes its own rhs and the repair starts from just those cells, in
+ * time proportional to the part of the tree they affect. When the grid's {@link MazeGrid#version()}
+ * shows edits that were not reported, or the grid was rebuilt, the solve compares every cell with the
+ * costs the tree was built on instead. A maze of another size or with other endpoints starts over. Unlike the other solvers an
+ * instance holds state: keep one per edited maze and use it from one thread at a time. Visited counts
+ * the cells expanded by this solve only.
+ */
+public final class LpaStarSolver implements Solver {
+
+    private static final int INF = Integer.MAX_VALUE;
+
+    private int rows = -1, cols, start, goal;
+    private int[] offsets;
+    // Entry cost per padded cell as last planned on, MazeGrid.WALL for walls and the border
+    private int[] cost;
+    private int[] g;
+    private int[] rhs;
+    private IndexedLongHeap open;
+    private int goalRow, goalCol, stride;
+    // Grid and version the costs were last synchronised with, and the cells reported since
+    private MazeGrid planned;
+    private int version;
+    private int[] changed = new int[16];
+    private int changedCount;
+
+    @Override
+    public String name() {
+        return "LPA*";
+    }
+
+    // The cost of maze cell (x, y) has been edited since the last solve; call once per edit
+    public void cellChanged(int x, int y) {
+        if (rows == -1 || x < 0 || x >= rows || y < 0 || y >= cols) return;
+        if (changedCount == changed.length) changed = Arrays.copyOf(changed, changedCount * 2);
+        changed[changedCount++] = (x + 1) * stride + y + 1;
+    }
+
+    @Override
+    public SolveResult solve(MazeData data, SolveListener listener) {
+        long t0 = System.nanoTime();
+        MazeGrid grid = data.grid();
+        if (grid.start() == -1 || grid.goal() == -1) {
+            rows = -1;
+            return new SolveResult(name(), false, SolveResult.NONE, SolveResult.NONE, 0, null, grid.cols(), System.nanoTime() - t0);
+        }
+        if (grid.rows() != rows || grid.cols() != cols || grid.start() != start || grid.goal() != goal) {
+            reset(grid);
+        } else if (grid.root() == planned && grid.version() == version + changedCount) {
+            for (int i = 0; i < changedCount; i++) sync(changed[i], grid, listener);
+        } else {
+            for (int c = 0; c < cost.length; c++) sync(c, grid, listener);
+        }
+        planned = grid.root();
+        version = grid.version();
+        changedCount = 0;
+
+        int visitedCount = 0;
+        while (!open.isEmpty() && (open.peekKey() < key(goal) || rhs[goal] != g[goal]) && !listener.isCancelled()) {
+            int cur = open.poll();
+            visitedCount++;
+            listener.onVisit(grid.row(cur), grid.col(cur));
+            if (g[cur] > rhs[cur]) {
+                g[cur] = rhs[cur];
+            } else {
+                // Its route got dearer: forget it and let the lookahead find the best remaining one
+                g[cur] = INF;
+                update(cur, grid, listener);
+            }
+            for (int dir = 0; dir < 4; dir++) update(cur + offsets[dir], grid, listener);
+        }
+        SearchContext.countQueueOps(open.pushes, open.decreaseKeys, open.pops);
+        open.pushes = open.decreaseKeys = open.pops = 0;
+
+        long t1 = System.nanoTime();
+        // A cancelled repair leaves the tree consistent enough to resume on the next solve
+        if (g[goal] == INF || rhs[goal] != g[goal]) {
+            return new SolveResult(name(), false, SolveResult.NONE, SolveResult.NONE, visitedCount, null, grid.cols(), t1 - t0);
+        }
+        int[] path = tracePath(grid);
+        return new SolveResult(name(), true, g[goal], path.length, visitedCount, path, grid.cols(), t1 - t0);
+    }
+
+    // Forget the tree and plan from scratch on the grid's costs
+    private void reset(MazeGrid grid) {
+        int size = grid.size();
+        if (cost == null || cost.length != size) {
+            g = new int[size];
+            rhs = new int[size];
+            open = new IndexedLongHeap(size);
+        } else {
+            open.clear();
+        }
+        if (cost == null || cost.length != size) cost = new int[size];
+        for (int c = 0; c < size; c++) cost[c] = grid.cost(c);
+        Arrays.fill(g, INF);
+        Arrays.fill(rhs, INF);
+        rows = grid.rows();
+        cols = grid.cols();
+        stride = grid.stride();
+        start = grid.start();
+        goal = grid.goal();
+        goalRow = goal / stride;
+        goalCol = goal % stride;
+        offsets = grid.offsets();
+        rhs[start] = 0;
+        open.set(start, key(start));
+    }
+
+    // Take over the grid's cost of the cell and repair from it when it changed
+    private void sync(int cell, MazeGrid grid, SolveListener listener) {
+        int w = grid.cost(cell);
+        if (w != cost[cell]) {
+            cost[cell] = w;
+            update(cell, grid, listener);
+        }
+    }
+
+    // Recompute the cell's lookahead and queue it exactly when it is inconsistent
+    private void update(int cell, MazeGrid grid, SolveListener listener) {
+        if (cell != start) {
+            int best = INF;
+            int w = cost[cell];
+            if (w != MazeGrid.WALL) {
+                for (int dir = 0; dir < 4; dir++) {
+                    int p = g[cell + offsets[dir]];
+                    if (p != INF && p + w < best) best = p + w;
+                }
+            }
+            if (best < rhs[cell]) listener.onRelax(grid.row(cell), grid.col(cell));
+            rhs[cell] = best;
+        }
+        if (g[cell] != rhs[cell]) open.set(cell, key(cell)); else open.remove(cell);
+    }
+
+    // (min(g, rhs) + h, min(g, rhs)) packed so that long order is lexicographic order
+    private long key(int cell) {
+        int k = Math.min(g[cell], rhs[cell]);
+        if (k == INF) return Long.MAX_VALUE;
+        // Manhattan distance is admissible and consistent since every move costs at least 1
+        long h = Math.abs(cell / stride - goalRow) + Math.abs(cell % stride - goalCol);
+        return (k + h) << 32 | k;
+    }
+
+    // Walk back from the goal, always to the neighbour with the lowest g
+    private int[] tracePath(MazeGrid grid) {
+        int[] reversed = new int[16];
+        int len = 0;
+        int cur = goal;
+        while (true) {
+            if (len == reversed.length) reversed = Arrays.copyOf(reversed, len * 2);
+            reversed[len++] = grid.toCell(cur);
+            if (cur == start) break;
+            int next = -1;
+            for (int dir = 0; dir < 4; dir++) {
+                int p = cur + offsets[dir];
+                if (g[p] != INF && (next == -1 || g[p] < g[next])) next = p;
+            }
+            if (next == -1 || len > cost.length) throw new IllegalStateException("LPA* tree has no route back to the start");
+            cur = next;
+        }
+        int[] path = new int[len];
+        for (int i = 0; i < len; i++) path[i] = reversed[len - 1 - i];
+        return path;
+    }
+}
@@ -0,0 +1,113 @@
+package com.nw.maze.engine;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.nw.maze.MazeData;
+import com.nw.maze.metrics.Metrics;
+import com.nw.maze.metrics.SolveEvent;
+
+/**
+ * Wraps a solver to measure each run: queue work from the thread's search contexts, bytes allocated by
+ * the solving thread and the workers it started (see {@link WorkerThreads}) and expansion rate. The numbers are attached to the result, added to
+ * {@link Metrics} and committed as a {@link SolveEvent} when Flight Recorder is recording one. Nothing
+ * is added inside the search loops beyond the queues' own counters, so the cost is a few reads per solve.
+ */
+final class MeteredSolver implements Solver {
+
+    private static final com.sun.management.ThreadMXBean THREADS = allocationBean();
+
+    private static final LongAdder SOLVES = Metrics.counter(Metrics.SOLVES);
+    private static final LongAdder SOLVE_NANOS = Metrics.counter(Metrics.SOLVE_NANOS);
+    private static final LongAdder EXPANDED = Metrics.counter(Metrics.EXPANDED);
+    private static final LongAdder EXPANDED_BACKWARD = Metrics.counter(Metrics.EXPANDED_BACKWARD);
+    private static final LongAdder RELAXATIONS = Metrics.counter(Metrics.RELAXATIONS);
+    private static final LongAdder ALLOCATED = Metrics.counter(Metrics.ALLOCATED_BYTES);
+    private static final LongAdder PUSHES = Metrics.counter(Metrics.PUSHES);
+    private static final LongAdder DECREASE_KEYS = Metrics.counter(Metrics.DECREASE_KEYS);
+    private static final LongAdder POPS = Metrics.counter(Metrics.POPS);
+
+    // Running total of what worker threads of this thread's solves allocated, added by WorkerThreads.charge
+    private static final ThreadLocal<long[]> WORKER_BYTES = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final Solver solver;
+
+    MeteredSolver(Solver solver) {
+        this.solver = solver;
+    }
+
+    @Override
+    public String name() {
+        return solver.name();
+    }
+
+    @Override
+    public SolveResult solve(MazeData data, SolveListener listener) {
+        SolveEvent event = new SolveEvent();
+        long[] ops = SearchContext.threadQueueOps();
+        long pushes = ops[0], decreaseKeys = ops[1], pops = ops[2];
+        long[] workers = WORKER_BYTES.get();
+        long allocated = allocatedBytes();
+        long workerAllocated = workers[0];
+        event.begin();
+        SolveResult r = solver.solve(data, listener);
+        event.end();
+        pushes = ops[0] - pushes;
+        decreaseKeys = ops[1] - decreaseKeys;
+        pops = ops[2] - pops;
+        allocated = allocated < 0 ? -1 : allocatedBytes() - allocated + workers[0] - workerAllocated;
+        long nanos = r.getElapsedNanos();
+        int expanded = r.getVisited();
+        long rate = expanded == SolveResult.NONE ? SolveResult.NONE : Math.round(expanded * 1e9 / Math.max(1, nanos));
+        SolveStats stats = new SolveStats(pushes, decreaseKeys, pops, allocated, rate);
+
+        SOLVES.increment();
+        SOLVE_NANOS.add(nanos);
+        if (expanded != SolveResult.NONE) EXPANDED.add(expanded);
+        if (r.getVisitedBackward() != SolveResult.NONE) EXPANDED_BACKWARD.add(r.getVisitedBackward());
+        RELAXATIONS.add(stats.getRelaxations());
+        if (allocated >= 0) ALLOCATED.add(allocated);
+        PUSHES.add(pushes);
+        DECREASE_KEYS.add(decreaseKeys);
+        POPS.add(pops);
+
+        if (event.shouldCommit()) {
+            event.algorithm = r.getAlgorithm();
+            event.rows = data.N();
+            event.cols = data.M();
+            event.solved = r.isSolved();
+            event.cost = r.getCost();
+            event.expanded = expanded;
+            event.expandedBackward = r.getVisitedBackward();
+            event.pushes = pushes;
+            event.pops = pops;
+            event.decreaseKeys = decreaseKeys;
+            event.relaxations = stats.getRelaxations();
+            event.allocatedBytes = allocated;
+            event.expandedPerSecond = rate;
+            event.commit();
+        }
+        return r.withStats(stats);
+    }
+
+    private static long allocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    // Bytes the thread has allocated since it started; 0 once it has ended or when the JVM cannot tell
+    static long allocatedBytes(Thread thread) {
+        return THREADS != null ? Math.max(0, THREADS.getThreadAllocatedBytes(thread.getId())) : 0;
+    }
+
+    static void addWorkerAllocation(long bytes) {
+        WORKER_BYTES.get()[0] += bytes;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) return null;
+        com.sun.management.ThreadMXBean b = (com.sun.management.ThreadMXBean) bean;
+        return b.isThreadAllocatedMemorySupported() && b.isThreadAllocatedMemoryEnabled() ? b : null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.nw.maze.engine;
+
+// Min-priority queue over int items for monotone searches: keys offered are never below the last polled key
+interface MonotoneQueue {
+
+    boolean isEmpty();
+
+    // Queue the item, or move it to a smaller key if already queued; larger keys are ignored
+    void offer(int item, int key);
+
+    int poll();
+
+    void clear();
+}
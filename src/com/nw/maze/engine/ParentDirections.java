@@ -0,0 +1,40 @@
+package com.nw.maze.engine;
+
+import com.nw.maze.MazeGrid;
+
+/**
+ * Per-cell parent links packed at 2 bits per cell: the direction of the move that entered the cell.
+ * The parent of cell i is {@code i - grid.offset(get(i))}, so a route is rebuilt by walking back to
+ * the start without any node objects.
+ */
+final class ParentDirections {
+
+    private final long[] words;
+
+    ParentDirections(int cells) {
+        words = new long[(cells + 31) >>> 5];
+    }
+
+    void set(int cell, int direction) {
+        int w = cell >>> 5;
+        int shift = (cell & 31) << 1;
+        words[w] = (words[w] & ~(3L << shift)) | ((long) direction << shift);
+    }
+
+    int get(int cell) {
+        return (int) (words[cell >>> 5] >>> ((cell & 31) << 1)) & 3;
+    }
+
+    // Route start to end as unpadded cell codes
+    int[] tracePath(MazeGrid grid, int start, int end) {
+        int len = 1;
+        for (int c = end; c != start; c -= grid.offset(get(c))) len++;
+        int[] path = new int[len];
+        int i = len;
+        for (int c = end; ; c -= grid.offset(get(c))) {
+            path[--i] = grid.toCell(c);
+            if (c == start) break;
+        }
+        return path;
+    }
+}
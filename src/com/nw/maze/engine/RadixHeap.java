@@ -0,0 +1,106 @@
+package com.nw.maze.engine;
+
+import java.util.Arrays;
+
+/**
+ * Monotone radix heap: an item with key k sits in bucket {@code bitLength(k ^ last)}, where last is the
+ * most recently polled key. Only the first non-empty bucket is ever redistributed, and every item moves
+ * to a strictly lower bucket, so the amortised cost is O(log C) per item without any comparisons.
+ * Used by {@link DialSolver} when cell weights are too large for a bucket per key.
+ */
+final class RadixHeap implements MonotoneQueue {
+
+    private static final int BUCKETS = 33;
+
+    private final int[] head = new int[BUCKETS];
+    private final int[] next;
+    private final int[] prev;
+    private final int[] key;
+    private final byte[] bucketOf;  // -1 when not queued
+    private int size;
+    // Operations since the last clear, read by SearchContext when a search ends
+    long pushes, decreaseKeys, pops;
+    private int last;
+
+    RadixHeap(int capacity) {
+        next = new int[capacity];
+        prev = new int[capacity];
+        key = new int[capacity];
+        bucketOf = new byte[capacity];
+        Arrays.fill(head, -1);
+        Arrays.fill(bucketOf, (byte) -1);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void offer(int item, int k) {
+        if (bucketOf[item] != -1) {
+            if (k >= key[item]) return;
+            unlink(item);
+            decreaseKeys++;
+        } else {
+            pushes++;
+            size++;
+        }
+        key[item] = k;
+        link(item, bucket(k));
+    }
+
+    @Override
+    public int poll() {
+        if (head[0] == -1) {
+            int b = 1;
+            while (head[b] == -1) b++;
+            int min = Integer.MAX_VALUE;
+            for (int i = head[b]; i != -1; i = next[i]) min = Math.min(min, key[i]);
+            last = min;
+            int i = head[b];
+            head[b] = -1;
+            while (i != -1) {
+                int n = next[i];
+                link(i, bucket(key[i]));
+                i = n;
+            }
+        }
+        int item = head[0];
+        unlink(item);
+        bucketOf[item] = -1;
+        size--;
+        pops++;
+        return item;
+    }
+
+    @Override
+    public void clear() {
+        for (int b = 0; b < BUCKETS; b++) {
+            for (int i = head[b]; i != -1; i = next[i]) bucketOf[i] = -1;
+            head[b] = -1;
+        }
+        size = 0;
+        pushes = decreaseKeys = pops = 0;
+        last = 0;
+    }
+
+    private int bucket(int k) {
+        return 32 - Integer.numberOfLeadingZeros(k ^ last);
+    }
+
+    private void link(int item, int b) {
+        int h = head[b];
+        next[item] = h;
+        prev[item] = -1;
+        if (h != -1) prev[h] = item;
+        head[b] = item;
+        bucketOf[item] = (byte) b;
+    }
+
+    private void unlink(int item) {
+        int p = prev[item], n = next[item];
+        if (p != -1) next[p] = n; else head[bucketOf[item]] = n;
+        if (n != -1) prev[n] = p;
+    }
+}
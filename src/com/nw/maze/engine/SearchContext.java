@@ -0,0 +1,191 @@
+package com.nw.maze.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reusable per-thread search state. Cell marks are epoch stamps: a cell is discovered in the current
+ * search when {@code mark == epoch} and closed when {@code mark == epoch + 1}, so starting a new search
+ * just advances the epoch instead of clearing every array. Distances and parents are only read for
+ * cells discovered in the current epoch and therefore never need clearing either.
+ */
+public final class SearchContext {
+
+    // A few contexts per thread so nested or bidirectional searches can hold two at once
+    private static final int POOL_SIZE = 4;
+    private static final ThreadLocal<SearchContext[]> POOL = ThreadLocal.withInitial(() -> new SearchContext[POOL_SIZE]);
+    // Contexts handed back by short-lived threads such as batch queries on virtual threads
+    private static final ConcurrentLinkedQueue<SearchContext> SPARE = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger SPARE_COUNT = new AtomicInteger();
+    private static final int MAX_SPARE = 64;
+    // Queue work of the searches this thread has finished: pushes, decrease-keys, pops
+    private static final ThreadLocal<long[]> THREAD_OPS = ThreadLocal.withInitial(() -> new long[3]);
+
+    private int epoch;
+    private int[] mark = new int[0];
+    private int[] dist = new int[0];
+    private ParentDirections parent;
+    private int[] link;
+    private IndexedMinHeap heap;
+    private BucketQueue buckets;
+    private RadixHeap radix;
+    private final IntQueue queue = new IntQueue(1024);
+    private boolean inUse;
+
+    /**
+     * Borrow a free context of this thread, sized for at least {@code size} cells and reset for a new search.
+     * Once all pooled contexts are borrowed, further callers get a private unpooled one.
+     */
+    public static SearchContext acquire(int size) {
+        SearchContext[] pool = POOL.get();
+        SearchContext ctx = null;
+        for (int i = 0; i < pool.length && ctx == null; i++) {
+            if (pool[i] == null) pool[i] = takeSpare();
+            if (!pool[i].inUse) ctx = pool[i];
+        }
+        if (ctx == null) ctx = new SearchContext();
+        ctx.inUse = true;
+        ctx.ensureCapacity(size);
+        ctx.reset();
+        return ctx;
+    }
+
+    // Hand the context back; its queue work since acquire is added to this thread's totals
+    public void release() {
+        long[] ops = THREAD_OPS.get();
+        ops[0] += queue.pushes;
+        ops[2] += queue.pushes - queue.size();
+        if (heap != null) add(ops, heap.pushes, heap.decreaseKeys, heap.pops);
+        if (buckets != null) add(ops, buckets.pushes, buckets.decreaseKeys, buckets.pops);
+        if (radix != null) add(ops, radix.pushes, radix.decreaseKeys, radix.pops);
+        inUse = false;
+    }
+
+    private static void add(long[] ops, long pushes, long decreaseKeys, long pops) {
+        ops[0] += pushes;
+        ops[1] += decreaseKeys;
+        ops[2] += pops;
+    }
+
+    // Queue work of a search that keeps its own queue, so metering sees it like a context's
+    static void countQueueOps(long pushes, long decreaseKeys, long pops) {
+        add(THREAD_OPS.get(), pushes, decreaseKeys, pops);
+    }
+
+    /**
+     * Running totals of queue pushes, decrease-keys and pops over the searches this thread has released,
+     * for callers that take the difference around a solve. The array is live; copy what you keep.
+     */
+    static long[] threadQueueOps() {
+        return THREAD_OPS.get();
+    }
+
+    /**
+     * Give this thread's idle contexts to the spare list so the next thread reuses them. Tasks that run
+     * on a fresh thread each, like virtual threads, call this when done; the arrays stay warm instead
+     * of being reallocated for every task.
+     */
+    public static void recycleThreadContexts() {
+        SearchContext[] pool = POOL.get();
+        for (SearchContext c : pool) {
+            if (c == null || c.inUse) continue;
+            if (SPARE_COUNT.incrementAndGet() <= MAX_SPARE) {
+                SPARE.offer(c);
+            } else {
+                SPARE_COUNT.decrementAndGet();
+            }
+        }
+        POOL.remove();
+    }
+
+    private static SearchContext takeSpare() {
+        SearchContext c = SPARE.poll();
+        if (c == null) return new SearchContext();
+        SPARE_COUNT.decrementAndGet();
+        return c;
+    }
+
+    // Start a new search; O(1) except once every ~2^30 searches when the stamps wrap
+    public void reset() {
+        epoch += 2;
+        if (epoch < 0) {
+            Arrays.fill(mark, 0);
+            epoch = 2;
+        }
+        queue.clear();
+        if (heap != null) heap.clear();
+        if (buckets != null) buckets.clear();
+        if (radix != null) radix.clear();
+    }
+
+    private void ensureCapacity(int size) {
+        if (mark.length >= size) return;
+        mark = new int[size];
+        dist = new int[size];
+        parent = new ParentDirections(size);
+        link = null;
+        heap = null;
+        buckets = null;
+        radix = null;
+        epoch = 0;
+    }
+
+    public boolean isDiscovered(int cell) {
+        return mark[cell] >= epoch;
+    }
+
+    public boolean isClosed(int cell) {
+        return mark[cell] == epoch + 1;
+    }
+
+    public void discover(int cell) {
+        if (mark[cell] < epoch) mark[cell] = epoch;
+    }
+
+    public void close(int cell) {
+        mark[cell] = epoch + 1;
+    }
+
+    // Best known distance, Integer.MAX_VALUE for cells not discovered in this search
+    public int dist(int cell) {
+        return mark[cell] >= epoch ? dist[cell] : Integer.MAX_VALUE;
+    }
+
+    // Record a distance and mark the cell discovered
+    public void setDist(int cell, int d) {
+        dist[cell] = d;
+        if (mark[cell] < epoch) mark[cell] = epoch;
+    }
+
+    ParentDirections parent() {
+        return parent;
+    }
+
+    // Explicit predecessor cell per discovered cell, for searches whose moves span several cells
+    int[] links() {
+        if (link == null) link = new int[mark.length];
+        return link;
+    }
+
+    IntQueue queue() {
+        return queue;
+    }
+
+    IndexedMinHeap heap() {
+        if (heap == null) heap = new IndexedMinHeap(mark.length);
+        return heap;
+    }
+
+    // Dial queue when the step range allows a bucket per key, otherwise a radix heap
+    MonotoneQueue monotoneQueue(int maxStep) {
+        if (maxStep > DialSolver.MAX_BUCKET_WEIGHT) {
+            if (radix == null) radix = new RadixHeap(mark.length);
+            return radix;
+        }
+        if (buckets == null || buckets.bucketCount() <= maxStep) {
+            buckets = new BucketQueue(mark.length, Math.max(maxStep, 16));
+        }
+        return buckets;
+    }
+}
@@ -0,0 +1,27 @@
+package com.nw.maze.engine;
+
+/**
+ * Optional observer of a running {@link Solver}. All callbacks happen on the solving thread,
+ * so a listener that renders or sleeps slows the search down by exactly that much.
+ */
+public interface SolveListener {
+
+    SolveListener NONE = new SolveListener() {};
+
+    // A cell (row x, column y) was expanded / finalized by the search
+    default void onVisit(int x, int y) {}
+
+    // A cell's tentative cost was lowered and it was (re)queued
+    default void onRelax(int x, int y) {}
+
+    // Current best candidate route (GA), cells encoded as x * M + y from entrance onwards
+    default void onCandidate(int[] path) {}
+
+    // Periodic progress of iterative solvers (GA)
+    default void onProgress(int bestCost, long elapsedNanos) {}
+
+    // Polled by the solver loops; returning true stops the search early
+    default boolean isCancelled() {
+        return false;
+    }
+}
@@ -0,0 +1,110 @@
+package com.nw.maze.engine;
+
+/**
+ * Outcome of one {@link Solver} run. Values an algorithm does not report are {@link #NONE}.
+ * The path is stored start to goal, each cell encoded as {@code x * cols + y}. Bidirectional searches
+ * also split the visited count into the cells each frontier expanded.
+ */
+public final class SolveResult {
+
+    public static final int NONE = -1;
+
+    private final String algorithm;
+    private final boolean solved;
+    private final int cost;
+    private final int steps;
+    private final int visited;
+    private final int visitedBackward;
+    private final int[] path;
+    private final int cols;
+    private final long elapsedNanos;
+    private final SolveStats stats;
+
+    public SolveResult(String algorithm, boolean solved, int cost, int steps, int visited,
+                       int[] path, int cols, long elapsedNanos) {
+        this(algorithm, solved, cost, steps, visited, NONE, path, cols, elapsedNanos, null);
+    }
+
+    // Result of a bidirectional search; visitedBackward of the visited cells were expanded from the goal
+    public SolveResult(String algorithm, boolean solved, int cost, int steps, int visited, int visitedBackward,
+                       int[] path, int cols, long elapsedNanos) {
+        this(algorithm, solved, cost, steps, visited, visitedBackward, path, cols, elapsedNanos, null);
+    }
+
+    private SolveResult(String algorithm, boolean solved, int cost, int steps, int visited, int visitedBackward,
+                        int[] path, int cols, long elapsedNanos, SolveStats stats) {
+        this.algorithm = algorithm;
+        this.solved = solved;
+        this.cost = cost;
+        this.steps = steps;
+        this.visited = visited;
+        this.visitedBackward = visitedBackward;
+        this.path = path;
+        this.cols = cols;
+        this.elapsedNanos = elapsedNanos;
+        this.stats = stats;
+    }
+
+    // The same result with the counters a metered solver measured; shares the path
+    SolveResult withStats(SolveStats stats) {
+        return new SolveResult(algorithm, solved, cost, steps, visited, visitedBackward, path, cols, elapsedNanos, stats);
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public boolean isSolved() {
+        return solved;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public int getSteps() {
+        return steps;
+    }
+
+    public int getVisited() {
+        return visited;
+    }
+
+    // Cells expanded by the search from the entrance; NONE unless the solver searched from both ends
+    public int getVisitedForward() {
+        return visitedBackward == NONE ? NONE : visited - visitedBackward;
+    }
+
+    // Cells expanded by the search from the exit; NONE unless the solver searched from both ends
+    public int getVisitedBackward() {
+        return visitedBackward;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    // Work counters, or null when the solver was not metered
+    public SolveStats getStats() {
+        return stats;
+    }
+
+    public int getPathLength() {
+        return path != null ? path.length : 0;
+    }
+
+    public int getPathX(int i) {
+        return path[i] / cols;
+    }
+
+    public int getPathY(int i) {
+        return path[i] % cols;
+    }
+
+    @Override
+    public String toString() {
+        return algorithm + (solved ? " solved" : " unsolved") + " cost=" + cost + " steps=" + steps
+            + " visited=" + visited + (visitedBackward == NONE ? "" : " (" + getVisitedForward() + " forward, "
+            + visitedBackward + " backward)") + " time=" + elapsedNanos + "ns";
+    }
+}
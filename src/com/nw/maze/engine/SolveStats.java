@@ -0,0 +1,57 @@
+package com.nw.maze.engine;
+
+/**
+ * Work counters of one metered solve, see {@link Solvers#metered}. Queue counts cover every search
+ * context the solve used on its thread, so a heuristic built on first use (landmarks) is included.
+ * A relaxation is a tentative cost that improved, which with in-place decrease-key is a push or a
+ * decrease-key; the queues never hold stale entries, so pops never exceed pushes.
+ */
+public final class SolveStats {
+
+    private final long pushes;
+    private final long decreaseKeys;
+    private final long pops;
+    private final long allocatedBytes;
+    private final long expandedPerSecond;
+
+    SolveStats(long pushes, long decreaseKeys, long pops, long allocatedBytes, long expandedPerSecond) {
+        this.pushes = pushes;
+        this.decreaseKeys = decreaseKeys;
+        this.pops = pops;
+        this.allocatedBytes = allocatedBytes;
+        this.expandedPerSecond = expandedPerSecond;
+    }
+
+    public long getPushes() {
+        return pushes;
+    }
+
+    public long getDecreaseKeys() {
+        return decreaseKeys;
+    }
+
+    public long getPops() {
+        return pops;
+    }
+
+    public long getRelaxations() {
+        return pushes + decreaseKeys;
+    }
+
+    // Bytes allocated by the solving thread and the worker threads the solver started itself, like the
+    // genetic solver's pool and islands; -1 when the JVM cannot tell
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    // Expanded cells per second of solve time, SolveResult.NONE when the solver does not count them
+    public long getExpandedPerSecond() {
+        return expandedPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return "pushes=" + pushes + " decreaseKeys=" + decreaseKeys + " pops=" + pops + " allocated="
+            + allocatedBytes + "B expanded/s=" + expandedPerSecond;
+    }
+}
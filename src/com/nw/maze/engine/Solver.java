@@ -0,0 +1,19 @@
+package com.nw.maze.engine;
+
+import com.nw.maze.MazeData;
+
+/**
+ * A maze search algorithm that runs headless on a {@link MazeData}.
+ * Implementations never touch Swing; progress is only reported through the optional listener.
+ */
+public interface Solver {
+
+    // Display name, matches the entries of the algorithm box in MazeFrame
+    String name();
+
+    SolveResult solve(MazeData data, SolveListener listener);
+
+    default SolveResult solve(MazeData data) {
+        return solve(data, SolveListener.NONE);
+    }
+}
@@ -0,0 +1,52 @@
+package com.nw.maze.engine;
+
+/**
+ * Lookup of the built-in solvers by the names shown in the algorithm box. Solvers returned here are
+ * metered: each result carries its {@link SolveStats} and feeds {@link com.nw.maze.metrics.Metrics}.
+ * All but LPA* are stateless and can be shared between threads; an LPA* solver keeps its search tree
+ * between solves and belongs to one thread and one maze, so ask for a new one per task.
+ */
+public final class Solvers {
+
+    private Solvers() {}
+
+    public static String[] names() {
+        return new String[]{ "Genetic", "Dijkstra", "Dial", "Bidirectional Dijkstra", "A*", "A* (ALT)", "Bidirectional A*", "BFS", "JPS", "LPA*" };
+    }
+
+    public static Solver byName(String name) {
+        return metered(create(name));
+    }
+
+    // Measure every run of the solver, see MeteredSolver
+    public static Solver metered(Solver solver) {
+        return solver instanceof MeteredSolver ? solver : new MeteredSolver(solver);
+    }
+
+    private static Solver create(String name) {
+        switch (name) {
+            case "BFS":
+                return new BfsSolver();
+            case "JPS":
+                return new JumpPointSolver();
+            case "A*":
+                return new AStarSolver();
+            case "A* (ALT)":
+                return new AStarSolver(true);
+            case "Bidirectional A*":
+                return new BidirectionalSolver(true);
+            case "Bidirectional Dijkstra":
+                return new BidirectionalSolver(false);
+            case "Genetic":
+                return new GeneticSolver(new GeneticSolver.Config());
+            case "Dijkstra":
+                return new DijkstraSolver();
+            case "Dial":
+                return new DialSolver();
+            case "LPA*":
+                return new LpaStarSolver();
+            default:
+                throw new IllegalArgumentException("Unknown algorithm: " + name);
+        }
+    }
+}
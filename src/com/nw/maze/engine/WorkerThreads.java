@@ -0,0 +1,44 @@
+package com.nw.maze.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread factory for solvers that start their own workers. It makes the same threads as the default
+ * factories and remembers them, so that what they allocated can be charged to the solve that started
+ * them: {@link #charge} adds it to the solving thread's figure in {@link MeteredSolver}. Charge before
+ * shutting the pool down, since a thread that has ended no longer reports its allocations.
+ */
+final class WorkerThreads implements ThreadFactory, ForkJoinPool.ForkJoinWorkerThreadFactory {
+
+    private static final ThreadFactory DEFAULT = Executors.defaultThreadFactory();
+
+    private final List<Thread> threads = new ArrayList<>();
+
+    @Override
+    public Thread newThread(Runnable task) {
+        return record(DEFAULT.newThread(task));
+    }
+
+    @Override
+    public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+        return record(ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool));
+    }
+
+    private synchronized <T extends Thread> T record(T thread) {
+        if (thread != null) threads.add(thread);
+        return thread;
+    }
+
+    // Add what the threads made so far allocated to the calling thread's solve; each thread is charged once
+    synchronized void charge() {
+        long bytes = 0;
+        for (Thread t : threads) bytes += MeteredSolver.allocatedBytes(t);
+        threads.clear();
+        MeteredSolver.addWorkerAllocation(bytes);
+    }
+}
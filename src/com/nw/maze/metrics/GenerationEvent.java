@@ -0,0 +1,35 @@
+package com.nw.maze.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One generation of one genetic-solver island, spanning evaluation, selection and breeding.
+ */
+@Name("com.nw.maze.GaGeneration")
+@Label("GA Generation")
+@Category({ "Maze Solver" })
+@Description("One generation of the genetic solver")
+@StackTrace(false)
+public final class GenerationEvent extends Event {
+
+    @Label("Island")
+    public int island;
+
+    @Label("Generation")
+    public int generation;
+
+    @Label("Population")
+    public int population;
+
+    @Label("Best Cost")
+    @Description("Fitness cost of the best candidate so far")
+    public int bestCost;
+
+    @Label("Reached Goal")
+    public boolean reached;
+}
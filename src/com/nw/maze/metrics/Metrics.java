@@ -0,0 +1,97 @@
+package com.nw.maze.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide counters for the solver hot paths and maze loading. Counters are LongAdders, so any
+ * number of solver threads add to them without contending; writers look a counter up once and keep it.
+ * {@link #snapshot()} reads every counter plus the rates derived from them, which is what the GUI, the
+ * CLI and JMX (as {@value #OBJECT_NAME}) show. Per-solve and per-generation detail goes to JDK Flight
+ * Recorder instead, see {@link SolveEvent}.
+ */
+public final class Metrics {
+
+    public static final String OBJECT_NAME = "com.nw.maze:type=Metrics";
+
+    public static final String SOLVES = "solve.count";
+    public static final String SOLVE_NANOS = "solve.nanos";
+    public static final String EXPANDED = "solve.expanded";
+    // The share of solve.expanded that bidirectional searches expanded from the exit
+    public static final String EXPANDED_BACKWARD = "solve.expandedBackward";
+    public static final String RELAXATIONS = "solve.relaxations";
+    public static final String ALLOCATED_BYTES = "solve.allocatedBytes";
+    public static final String PUSHES = "queue.pushes";
+    public static final String POPS = "queue.pops";
+    public static final String DECREASE_KEYS = "queue.decreaseKeys";
+    public static final String GENERATIONS = "ga.generations";
+    public static final String PARSES = "parse.count";
+    public static final String PARSE_NANOS = "parse.nanos";
+    // Derived when a snapshot is taken
+    public static final String EXPANDED_PER_SECOND = "solve.expandedPerSecond";
+
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            // Already registered by another copy of these classes; the counters still work without JMX
+        }
+    }
+
+    private Metrics() {}
+
+    // Pay the one-off start-up costs now instead of inside whatever the caller times first, typically the
+    // first maze load: class initialisation registers the JMX bean, and the first event class loaded pulls
+    // in the Flight Recorder event machinery. Each costs a few hundred ms on a cold JVM
+    public static void init() {
+        new ParseEvent();
+        new SolveEvent();
+        new GenerationEvent();
+    }
+
+    public static LongAdder counter(String name) {
+        return COUNTERS.computeIfAbsent(name, k -> new LongAdder());
+    }
+
+    // Every counter by name, plus expanded cells per second over all solves
+    public static Map<String, Long> snapshot() {
+        Map<String, Long> values = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> e : COUNTERS.entrySet()) values.put(e.getKey(), e.getValue().sum());
+        long nanos = values.getOrDefault(SOLVE_NANOS, 0L);
+        if (nanos > 0) values.put(EXPANDED_PER_SECOND, Math.round(values.getOrDefault(EXPANDED, 0L) * 1e9 / nanos));
+        return values;
+    }
+
+    public static void reset() {
+        for (LongAdder a : COUNTERS.values()) a.reset();
+    }
+
+    // One "name = value" line per metric
+    public static String format(Map<String, Long> snapshot) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Long> e : snapshot.entrySet()) {
+            sb.append(e.getKey()).append(" = ").append(e.getValue()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static final class Bean implements MetricsMXBean {
+        @Override
+        public Map<String, Long> getCounters() {
+            return snapshot();
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+}
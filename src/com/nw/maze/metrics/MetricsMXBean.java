@@ -0,0 +1,13 @@
+package com.nw.maze.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link Metrics}, registered as {@value Metrics#OBJECT_NAME}.
+ */
+public interface MetricsMXBean {
+
+    Map<String, Long> getCounters();
+
+    void reset();
+}
@@ -0,0 +1,29 @@
+package com.nw.maze.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Loading one maze file, text or binary, up to the 2D arrays the frame draws.
+ */
+@Name("com.nw.maze.Parse")
+@Label("Maze Parse")
+@Category({ "Maze Solver" })
+@StackTrace(false)
+public final class ParseEvent extends Event {
+
+    @Label("File")
+    public String file;
+
+    @Label("Binary")
+    public boolean binary;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Columns")
+    public int cols;
+}
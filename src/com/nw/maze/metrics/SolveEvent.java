@@ -0,0 +1,67 @@
+package com.nw.maze.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Frequency;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One solver run, recorded by Flight Recorder when enabled, e.g. with
+ * {@code -XX:StartFlightRecording=filename=solve.jfr}. The event's duration is the solve.
+ */
+@Name("com.nw.maze.Solve")
+@Label("Maze Solve")
+@Category({ "Maze Solver" })
+@Description("One run of a maze solver with its queue work and allocation")
+@StackTrace(false)
+public final class SolveEvent extends Event {
+
+    @Label("Algorithm")
+    public String algorithm;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Columns")
+    public int cols;
+
+    @Label("Solved")
+    public boolean solved;
+
+    @Label("Cost")
+    public int cost;
+
+    @Label("Expanded Cells")
+    public int expanded;
+
+    @Label("Expanded Backward")
+    @Description("Cells of the expanded ones that a bidirectional search reached from the exit, -1 otherwise")
+    public int expandedBackward;
+
+    @Label("Queue Pushes")
+    public long pushes;
+
+    @Label("Queue Pops")
+    public long pops;
+
+    @Label("Decrease-Keys")
+    @Description("Queued cells whose key was lowered in place")
+    public long decreaseKeys;
+
+    @Label("Relaxations")
+    @Description("Tentative costs that improved: pushes plus decrease-keys")
+    public long relaxations;
+
+    @Label("Allocated")
+    @Description("Bytes allocated by the solving thread and the workers the solver started")
+    @DataAmount
+    public long allocatedBytes;
+
+    @Label("Expansion Rate")
+    @Frequency
+    public long expandedPerSecond;
+}